@@ -1,12 +1,18 @@
 package com.example.bankcards.controller.admin;
 
 import com.example.bankcards.dto.PageResponse;
+import com.example.bankcards.dto.SliceResponse;
+import com.example.bankcards.dto.card.CardBalanceResponse;
 import com.example.bankcards.dto.card.CardCreateRequest;
+import com.example.bankcards.dto.card.CardImportResponse;
 import com.example.bankcards.dto.card.CardResponse;
 import com.example.bankcards.dto.card.CardStatusUpdateRequest;
 import com.example.bankcards.dto.card.CardUpdateRequest;
 import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.contracts.BalanceSnapshotServiceInterface;
 import com.example.bankcards.service.contracts.CardCommandServiceInterface;
+import com.example.bankcards.service.contracts.CardImportServiceInterface;
 import com.example.bankcards.service.contracts.CardQueryServiceInterface;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -16,12 +22,20 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/v1/admin/cards")
@@ -33,6 +47,8 @@ public class AdminCardController {
     private final CardCommandServiceInterface cardCommandService;
     private final CardQueryServiceInterface cardQueryService;
     private final CustomUserDetailsService userDetailsService;
+    private final BalanceSnapshotServiceInterface balanceSnapshotService;
+    private final CardImportServiceInterface cardImportService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -42,6 +58,15 @@ public class AdminCardController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import cards from a CSV file (Admin only)")
+    public ResponseEntity<CardImportResponse> importCards(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.ok(cardImportService.importCards(csv));
+        }
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get all cards (Admin only)")
@@ -51,6 +76,14 @@ public class AdminCardController {
         return ResponseEntity.ok(new PageResponse<>(cards));
     }
 
+    @GetMapping(params = "withTotal=false")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get all cards without the exact total (Admin only)")
+    public ResponseEntity<SliceResponse<CardResponse>> getAllCardsSlice(
+            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
+        return ResponseEntity.ok(cardQueryService.getAllCardsSlice(pageable));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update card")
@@ -77,6 +110,23 @@ public class AdminCardController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/balance")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get card balance at a point in time (Admin only)")
+    public ResponseEntity<CardBalanceResponse> getBalanceAt(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(balanceSnapshotService.getBalanceAt(id, at));
+    }
+
+    @PostMapping("/balance-snapshots")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Take closing balance snapshots of all cards for a day (Admin only)")
+    public ResponseEntity<Integer> takeBalanceSnapshots(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(balanceSnapshotService.takeSnapshots(date));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete card (Admin only)")
@@ -88,6 +138,9 @@ public class AdminCardController {
     }
 
     private Long getUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
         String username = authentication.getName();
         return userDetailsService.loadUserEntityByUsername(username).getId();
     }
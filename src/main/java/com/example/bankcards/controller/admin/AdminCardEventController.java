@@ -0,0 +1,51 @@
+package com.example.bankcards.controller.admin;
+
+import com.example.bankcards.dto.PageResponse;
+import com.example.bankcards.dto.event.CardEventResponse;
+import com.example.bankcards.service.contracts.CardEventServiceInterface;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/card-events")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Card events", description = "Admin card event audit endpoints")
+public class AdminCardEventController {
+
+    private final CardEventServiceInterface eventService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Search card events by type, card and payload fields (Admin only)")
+    public ResponseEntity<PageResponse<CardEventResponse>> findEvents(
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) Long cardId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String oldStatus,
+            @RequestParam(required = false) String newStatus,
+            @RequestParam(required = false) String reason,
+            @PageableDefault(size = 20) Pageable pageable) {
+
+        Map<String, String> payloadFields = new HashMap<>();
+        payloadFields.put("status", status);
+        payloadFields.put("oldStatus", oldStatus);
+        payloadFields.put("newStatus", newStatus);
+        payloadFields.put("reason", reason);
+
+        return ResponseEntity.ok(new PageResponse<>(eventService.findEvents(eventType, cardId, payloadFields, pageable)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bankcards.controller.admin;
+
+import com.example.bankcards.dto.ExportFormat;
+import com.example.bankcards.service.contracts.ExportServiceInterface;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Full-table exports for the data warehouse. The body is written while the rows are read, so an
+ * export of any size is a single request.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/export")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Export", description = "Admin streaming export endpoints")
+public class AdminExportController {
+
+    private final ExportServiceInterface exportService;
+
+    @GetMapping("/cards")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export all cards as NDJSON or CSV (Admin only)")
+    public ResponseEntity<StreamingResponseBody> exportCards(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return attachment("cards", format, out -> exportService.exportCards(format, out));
+    }
+
+    @GetMapping("/transfers")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export all transfers as NDJSON or CSV (Admin only)")
+    public ResponseEntity<StreamingResponseBody> exportTransfers(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return attachment("transfers", format, out -> exportService.exportTransfers(format, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String name, ExportFormat format,
+                                                             StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.controller.admin;
+
+import com.example.bankcards.dto.event.ReplayReport;
+import com.example.bankcards.service.contracts.CardEventReplayServiceInterface;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin/projections")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Projections", description = "Admin endpoints for read models built from card events")
+public class AdminProjectionController {
+
+    private final CardEventReplayServiceInterface replayService;
+
+    @PostMapping("/{name}/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Clear a projection and replay all card events into it (Admin only)")
+    public ResponseEntity<ReplayReport> rebuild(@PathVariable String name) {
+        return ResponseEntity.ok(replayService.rebuild(name));
+    }
+
+    @PostMapping("/{name}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Replay the card events after the projection's checkpoints (Admin only)")
+    public ResponseEntity<ReplayReport> resume(@PathVariable String name) {
+        return ResponseEntity.ok(replayService.resume(name));
+    }
+}
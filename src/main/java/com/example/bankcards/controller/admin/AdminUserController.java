@@ -1,8 +1,10 @@
 package com.example.bankcards.controller.admin;
 
+import com.example.bankcards.dto.SliceResponse;
 import com.example.bankcards.dto.user.UserResponse;
 import com.example.bankcards.dto.user.UserUpdateRequest;
 import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.contracts.UserServiceInterface;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -37,6 +39,14 @@ public class AdminUserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping(params = "withTotal=false")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get all users without the exact total (Admin only)")
+    public ResponseEntity<SliceResponse<UserResponse>> getAllUsersSlice(
+            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
+        return ResponseEntity.ok(userService.getAllUsersSlice(pageable));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update user (Admin only)")
@@ -65,6 +75,9 @@ public class AdminUserController {
     }
 
     private Long getUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
         String username = authentication.getName();
         return userDetailsService.loadUserEntityByUsername(username).getId();
     }
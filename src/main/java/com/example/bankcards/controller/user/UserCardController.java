@@ -1,8 +1,10 @@
 package com.example.bankcards.controller.user;
 
+import com.example.bankcards.dto.SliceResponse;
 import com.example.bankcards.dto.card.CardResponse;
 import com.example.bankcards.dto.card.CardStatusUpdateRequest;
 import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.contracts.CardCommandServiceInterface;
 import com.example.bankcards.service.contracts.CardQueryServiceInterface;
 import io.swagger.v3.oas.annotations.Operation;
@@ -41,6 +43,17 @@ public class UserCardController {
         return ResponseEntity.ok(cards);
     }
 
+    @GetMapping(params = "withTotal=false")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Get current user's cards without the exact total")
+    public ResponseEntity<SliceResponse<CardResponse>> getMyCardsSlice(
+            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = getUserId(authentication);
+        return ResponseEntity.ok(cardQueryService.getUserCardsSlice(userId, pageable));
+    }
+
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Request card block")
@@ -53,6 +66,9 @@ public class UserCardController {
     }
 
     private Long getUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
         String username = authentication.getName();
         return userDetailsService.loadUserEntityByUsername(username).getId();
     }
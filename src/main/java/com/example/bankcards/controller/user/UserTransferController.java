@@ -1,8 +1,14 @@
 package com.example.bankcards.controller.user;
 
+import com.example.bankcards.dto.CursorPageResponse;
+import com.example.bankcards.dto.SliceResponse;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
+import com.example.bankcards.dto.transfer.TransferPeriod;
 import com.example.bankcards.dto.transfer.TransferRequest;
 import com.example.bankcards.dto.transfer.TransferResponse;
 import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.contracts.TransferServiceInterface;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -12,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +26,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/v1/user/transfers")
 @RequiredArgsConstructor
@@ -33,27 +42,78 @@ public class UserTransferController {
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Execute transfer between own cards")
     public ResponseEntity<TransferResponse> executeTransfer(
-            @Valid @RequestBody TransferRequest request) {
+            @Valid @RequestBody TransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         Long userId = getUserId(authentication);
-        TransferResponse response = transferService.executeTransfer(request, userId);
+        TransferResponse response = transferService.executeTransfer(request, userId, idempotencyKey);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Execute a batch of transfers between own cards in one transaction")
+    public ResponseEntity<BatchTransferResponse> executeTransfers(
+            @Valid @RequestBody BatchTransferRequest request) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = getUserId(authentication);
+        BatchTransferResponse response = transferService.executeTransfers(request, userId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('USER')")
-    @Operation(summary = "Get current user's transfers")
+    @Operation(summary = "Get current user's transfers",
+            description = "Give from and/or to to read only the monthly partitions they overlap; without them every partition is scanned")
     public ResponseEntity<Page<TransferResponse>> getMyTransfers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         Long userId = getUserId(authentication);
-        Page<TransferResponse> transfers = transferService.getUserTransfers(userId, pageable);
+        Page<TransferResponse> transfers = transferService.getUserTransfers(userId, new TransferPeriod(from, to), pageable);
+        return ResponseEntity.ok(transfers);
+    }
+
+    @GetMapping(params = "withTotal=false")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Get current user's transfers without the exact total",
+            description = "Without from and to every monthly partition is scanned")
+    public ResponseEntity<SliceResponse<TransferResponse>> getMyTransfersSlice(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = getUserId(authentication);
+        return ResponseEntity.ok(transferService.getUserTransfersSlice(userId, new TransferPeriod(from, to), pageable));
+    }
+
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Get current user's transfers, newest first, using a continuation cursor",
+            description = "Without from and to every monthly partition is scanned")
+    public ResponseEntity<CursorPageResponse<TransferResponse>> getMyTransfersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long cardId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = getUserId(authentication);
+        CursorPageResponse<TransferResponse> transfers = transferService.getUserTransfers(
+                userId, cardId, new TransferPeriod(from, to), cursor, size);
         return ResponseEntity.ok(transfers);
     }
 
     private Long getUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
         String username = authentication.getName();
         return userDetailsService.loadUserEntityByUsername(username).getId();
     }
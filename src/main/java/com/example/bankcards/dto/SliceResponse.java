@@ -0,0 +1,30 @@
+package com.example.bankcards.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * One page of an offset-paginated list without an exact total, so no {@code COUNT(*)} runs
+ * alongside the page query. {@code approximateTotalElements} is an estimate that may lag behind
+ * recent changes, or null when none is available.
+ */
+public record SliceResponse<T>(
+        List<T> content,
+        int pageNumber,
+        int pageSize,
+        boolean hasNext,
+        boolean isFirst,
+        Long approximateTotalElements
+) {
+    public SliceResponse(Slice<T> slice, Long approximateTotalElements) {
+        this(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext(),
+                slice.isFirst(),
+                approximateTotalElements
+        );
+    }
+}
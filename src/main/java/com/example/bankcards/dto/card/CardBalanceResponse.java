@@ -0,0 +1,23 @@
+package com.example.bankcards.dto.card;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardBalanceResponse {
+    private Long cardId;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime at;
+    private BigDecimal balance;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate snapshotDate;
+    private int entriesScanned;
+}
@@ -14,7 +14,7 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class CardCreateRequest {
     @NotBlank(message = "Card number is required")
-    @Pattern(regexp = "\\d{16}", message = "Card number must be 16 digits")
+    @Pattern(regexp = "\\d{13,19}", message = "Card number must be 13 to 19 digits")
     private String cardNumber;
 
     @NotBlank(message = "Card holder name is required")
@@ -0,0 +1,23 @@
+package com.example.bankcards.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a CSV card import. {@code errors} lists at most the first few hundred rejected
+ * rows; {@code rejected} counts all of them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardImportResponse {
+    private long rows;
+    private long imported;
+    private long rejected;
+    private List<CardImportRowError> errors;
+    private long elapsedMs;
+    private double rowsPerSecond;
+}
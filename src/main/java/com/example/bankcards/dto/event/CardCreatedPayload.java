@@ -0,0 +1,15 @@
+package com.example.bankcards.dto.event;
+
+import java.math.BigDecimal;
+
+/**
+ * event_data of a CARD_CREATED event.
+ */
+public record CardCreatedPayload(
+        Long cardId,
+        String cardHolder,
+        String status,
+        BigDecimal balance,
+        Long userId
+) {
+}
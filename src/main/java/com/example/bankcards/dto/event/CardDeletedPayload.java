@@ -0,0 +1,12 @@
+package com.example.bankcards.dto.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * event_data of a CARD_DELETED event.
+ */
+public record CardDeletedPayload(
+        Long cardId,
+        LocalDateTime deletedAt
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.dto.event;
+
+/**
+ * One status change of a card, recorded as a CARD_STATUS_CHANGED event.
+ */
+public record CardStatusChange(
+        Long cardId,
+        String oldStatus,
+        String newStatus,
+        Long userId,
+        String reason
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto.event;
+
+/**
+ * event_data of a CARD_STATUS_CHANGED event.
+ */
+public record CardStatusChangedPayload(
+        Long cardId,
+        String oldStatus,
+        String newStatus,
+        String reason
+) {
+}
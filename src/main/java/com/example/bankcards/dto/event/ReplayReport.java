@@ -0,0 +1,13 @@
+package com.example.bankcards.dto.event;
+
+/**
+ * Outcome of one replay run of a projection.
+ */
+public record ReplayReport(
+        String projection,
+        int ranges,
+        long events,
+        long elapsedMs,
+        double eventsPerSecond
+) {
+}
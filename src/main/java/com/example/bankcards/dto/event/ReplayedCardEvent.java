@@ -0,0 +1,18 @@
+package com.example.bankcards.dto.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * A card event read back for replay. {@code payload} is the typed event_data
+ * ({@link CardCreatedPayload}, {@link CardStatusChangedPayload} or {@link CardDeletedPayload}),
+ * or null for event types that have none.
+ */
+public record ReplayedCardEvent(
+        Long id,
+        Long aggregateId,
+        String eventType,
+        Long userId,
+        LocalDateTime timestamp,
+        Object payload
+) {
+}
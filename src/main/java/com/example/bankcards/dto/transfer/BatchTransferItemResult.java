@@ -0,0 +1,23 @@
+package com.example.bankcards.dto.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferItemResult {
+    private int index;
+    private String status;
+    private TransferResponse transfer;
+    private String error;
+
+    public static BatchTransferItemResult completed(int index, TransferResponse transfer) {
+        return new BatchTransferItemResult(index, "COMPLETED", transfer, null);
+    }
+
+    public static BatchTransferItemResult rejected(int index, String error) {
+        return new BatchTransferItemResult(index, "REJECTED", null, error);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.transfer;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferRequest {
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 10000, message = "A batch can contain at most 10000 transfers")
+    private List<@Valid TransferRequest> transfers;
+
+    /**
+     * true - any rejected transfer rolls back the whole batch,
+     * false - rejected transfers are reported and the rest are applied
+     */
+    private boolean allOrNothing = true;
+}
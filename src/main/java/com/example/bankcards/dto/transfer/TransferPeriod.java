@@ -0,0 +1,34 @@
+package com.example.bankcards.dto.transfer;
+
+import com.example.bankcards.exception.InvalidTransferException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Half-open creation time window [from, to) of a transfer history query. Either end may be open.
+ * Transfers are partitioned by month of created_at, so a bounded window only reads the
+ * partitions it overlaps. An open end is replaced by 1970 or 9999, so a query without
+ * {@code from} and {@code to} ({@link #ALL}) still scans every partition.
+ */
+public record TransferPeriod(LocalDateTime from, LocalDateTime to) {
+
+    public static final TransferPeriod ALL = new TransferPeriod(null, null);
+
+    // Stand-ins for open ends, so that every query has the same shape
+    private static final LocalDateTime MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    public TransferPeriod {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidTransferException("Period start must be before its end");
+        }
+    }
+
+    public LocalDateTime lowerBound() {
+        return from != null ? from : MIN;
+    }
+
+    public LocalDateTime upperBound() {
+        return to != null ? to : MAX;
+    }
+}
@@ -22,9 +22,15 @@ public class Card {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "card_number_encrypted", nullable = false, unique = true)
+    @Column(name = "card_number_encrypted", nullable = false)
     private String cardNumberEncrypted;
 
+    @Column(name = "card_number_hash", nullable = false, unique = true, length = 64)
+    private String cardNumberHash;
+
+    @Column(name = "card_number_last_four", nullable = false, length = 4)
+    private String cardNumberLastFour;
+
     @Column(name = "card_holder", nullable = false, length = 200)
     private String cardHolder;
 
@@ -41,6 +47,19 @@ public class Card {
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
 
+    /**
+     * Sequence of the card's latest ledger entry. Incremented together with every balance change.
+     */
+    @Column(name = "ledger_sequence", nullable = false)
+    private Long ledgerSequence = 0L;
+
+    /**
+     * Set when the card is deleted. Its ledger entries are append-only and keep referencing it,
+     * so deleted cards stay in the table and are filtered out of card lookups instead.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -61,6 +80,15 @@ public class Card {
         return LocalDate.now().isAfter(expiryDate);
     }
 
+    /**
+     * Applies a signed balance change and returns the ledger entry recording it.
+     */
+    public LedgerEntry post(BigDecimal amount, LocalDateTime postedAt) {
+        balance = balance.add(amount);
+        ledgerSequence++;
+        return LedgerEntry.of(this, amount, postedAt);
+    }
+
     public boolean isActive() {
         return status == CardStatus.ACTIVE && !isExpired();
     }
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
@@ -24,7 +26,8 @@ public class CardEvent {
     @Column(name = "event_type", nullable = false, length = 50)
     private String eventType;
 
-    @Column(name = "event_data", nullable = false, columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "event_data", nullable = false, columnDefinition = "jsonb")
     private String eventData; // JSON data
 
     @Column(name = "user_id", nullable = false)
@@ -33,6 +36,12 @@ public class CardEvent {
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
+    /**
+     * Set by the outbox relay once the event was handed to the event sink.
+     */
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
     @PrePersist
     protected void onCreate() {
         if (timestamp == null) {
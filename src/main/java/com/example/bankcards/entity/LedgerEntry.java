@@ -0,0 +1,53 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One posting of a card's append-only ledger. {@code sequence} numbers a card's entries from 1
+ * without gaps; {@code balanceAfter} is the card balance once the entry is applied. The opening
+ * entry of a card has no transfer.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Column(name = "transfer_id")
+    private Long transferId;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private Long sequence;
+
+    @Column(name = "balance_after", nullable = false, precision = 15, scale = 2)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Entry for a change that has already been applied to the card's balance and sequence.
+     */
+    public static LedgerEntry of(Card card, BigDecimal amount, LocalDateTime postedAt) {
+        return new LedgerEntry(null, card.getId(), null, amount, card.getLedgerSequence(), card.getBalance(), postedAt);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class ReplayNotPossibleException extends RuntimeException {
+    public ReplayNotPossibleException(String message) {
+        super(message);
+    }
+}
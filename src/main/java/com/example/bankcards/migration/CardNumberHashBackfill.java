@@ -0,0 +1,103 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.BlindIndexUtil;
+import com.example.bankcards.util.EncryptionUtil;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fills cards.card_number_hash for existing cards in id order, one chunk per transaction,
+ * so a large table is never locked as a whole. Safe to rerun: hashed rows are skipped.
+ */
+public class CardNumberHashBackfill implements CustomTaskChange {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Getter
+    @Setter
+    private String encryptionKey;
+
+    @Getter
+    @Setter
+    private String algorithm;
+
+    @Getter
+    @Setter
+    private String blindIndexKey;
+
+    private int updatedRows;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        EncryptionUtil encryptionUtil = new EncryptionUtil(encryptionKey, algorithm);
+        BlindIndexUtil blindIndexUtil = new BlindIndexUtil(blindIndexKey);
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT id, card_number_encrypted FROM cards " +
+                     "WHERE card_number_hash IS NULL AND id > ? ORDER BY id LIMIT " + CHUNK_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE cards SET card_number_hash = ? WHERE id = ?")) {
+            long lastId = 0;
+            int chunkRows;
+            do {
+                chunkRows = 0;
+                select.setLong(1, lastId);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        lastId = rows.getLong("id");
+                        String cardNumber = encryptionUtil.decrypt(rows.getString("card_number_encrypted"));
+                        update.setString(1, blindIndexUtil.hash(cardNumber));
+                        update.setLong(2, lastId);
+                        update.addBatch();
+                        chunkRows++;
+                    }
+                }
+
+                if (chunkRows > 0) {
+                    update.executeBatch();
+                    if (!connection.getAutoCommit()) {
+                        connection.commit();
+                    }
+                    updatedRows += chunkRows;
+                }
+            } while (chunkRows == CHUNK_SIZE);
+        } catch (SQLException e) {
+            throw new CustomChangeException("Error backfilling card_number_hash", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Backfilled card_number_hash for " + updatedRows + " cards";
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors errors = new ValidationErrors();
+        errors.checkRequiredField("encryptionKey", encryptionKey);
+        errors.checkRequiredField("algorithm", algorithm);
+        errors.checkRequiredField("blindIndexKey", blindIndexKey);
+        return errors;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.EncryptionUtil;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fills cards.card_number_last_four for cards created before the column existed.
+ * The card number is only stored encrypted, so this cannot be done in plain SQL.
+ */
+public class CardNumberLastFourBackfill implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Getter
+    @Setter
+    private String encryptionKey;
+
+    @Getter
+    @Setter
+    private String algorithm;
+
+    private int updatedRows;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        EncryptionUtil encryptionUtil = new EncryptionUtil(encryptionKey, algorithm);
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT id, card_number_encrypted FROM cards WHERE card_number_last_four IS NULL");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE cards SET card_number_last_four = ? WHERE id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+
+            int pending = 0;
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    String cardNumber = encryptionUtil.decrypt(rows.getString("card_number_encrypted"));
+                    update.setString(1, cardNumber.substring(cardNumber.length() - 4));
+                    update.setLong(2, rows.getLong("id"));
+                    update.addBatch();
+                    updatedRows++;
+
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("Error backfilling card_number_last_four", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Backfilled card_number_last_four for " + updatedRows + " cards";
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors errors = new ValidationErrors();
+        errors.checkRequiredField("encryptionKey", encryptionKey);
+        errors.checkRequiredField("algorithm", algorithm);
+        return errors;
+    }
+}
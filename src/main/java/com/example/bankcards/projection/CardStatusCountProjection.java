@@ -0,0 +1,154 @@
+package com.example.bankcards.projection;
+
+import com.example.bankcards.dto.event.CardCreatedPayload;
+import com.example.bankcards.dto.event.CardDeletedPayload;
+import com.example.bankcards.dto.event.CardStatusChangedPayload;
+import com.example.bankcards.dto.event.ReplayedCardEvent;
+import com.example.bankcards.service.contracts.CardProjection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Number of cards per owner and status in card_status_counts. The owner and current status of
+ * every card are kept in projected_card_statuses, because status changes and deletions carry
+ * neither.
+ */
+@Component
+@RequiredArgsConstructor
+public class CardStatusCountProjection implements CardProjection {
+
+    public static final String NAME = "card-status-counts";
+
+    private static final String UPSERT_CARD_SQL =
+            "INSERT INTO projected_card_statuses (card_id, user_id, status) VALUES (?, ?, ?) " +
+            "ON CONFLICT (card_id) DO UPDATE SET status = EXCLUDED.status";
+
+    private static final String ADD_COUNT_SQL =
+            "INSERT INTO card_status_counts (user_id, status, card_count) VALUES (?, ?, ?) " +
+            "ON CONFLICT (user_id, status) DO UPDATE SET card_count = card_status_counts.card_count + EXCLUDED.card_count";
+
+    private static final Comparator<CountKey> COUNT_ORDER =
+            Comparator.comparing(CountKey::userId).thenComparing(CountKey::status);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void reset() {
+        jdbcTemplate.execute("TRUNCATE projected_card_statuses, card_status_counts");
+    }
+
+    /**
+     * Applies the batch in memory on the current state of its cards, then writes the changed
+     * cards and the summed count changes with one batch each.
+     */
+    @Override
+    public void apply(List<ReplayedCardEvent> events) {
+        Map<Long, CardState> cards = loadCards(events);
+        Set<Long> changed = new HashSet<>();
+        Set<Long> deleted = new HashSet<>();
+        // Sorted so that concurrent batches update shared count rows in the same order
+        Map<CountKey, Integer> counts = new TreeMap<>(COUNT_ORDER);
+
+        for (ReplayedCardEvent event : events) {
+            Long cardId = event.aggregateId();
+            CardState card = cards.get(cardId);
+            if (event.payload() instanceof CardCreatedPayload created) {
+                cards.put(cardId, new CardState(created.userId(), created.status()));
+                counts.merge(new CountKey(created.userId(), created.status()), 1, Integer::sum);
+                changed.add(cardId);
+                deleted.remove(cardId);
+            } else if (card == null) {
+                // Created before the first replayed event, e.g. archived; nothing to count against
+                continue;
+            } else if (event.payload() instanceof CardStatusChangedPayload statusChanged) {
+                counts.merge(new CountKey(card.userId(), card.status()), -1, Integer::sum);
+                counts.merge(new CountKey(card.userId(), statusChanged.newStatus()), 1, Integer::sum);
+                cards.put(cardId, new CardState(card.userId(), statusChanged.newStatus()));
+                changed.add(cardId);
+            } else if (event.payload() instanceof CardDeletedPayload) {
+                counts.merge(new CountKey(card.userId(), card.status()), -1, Integer::sum);
+                cards.remove(cardId);
+                changed.remove(cardId);
+                deleted.add(cardId);
+            }
+        }
+
+        writeCards(cards, changed, deleted);
+        writeCounts(counts);
+    }
+
+    /**
+     * Current number of cards of the user per status.
+     */
+    public Map<String, Integer> countsFor(Long userId) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT status, card_count FROM card_status_counts WHERE user_id = ? AND card_count > 0 ORDER BY status",
+                rs -> {
+                    counts.put(rs.getString("status"), rs.getInt("card_count"));
+                }, userId);
+        return counts;
+    }
+
+    private Map<Long, CardState> loadCards(List<ReplayedCardEvent> events) {
+        Long[] cardIds = events.stream().map(ReplayedCardEvent::aggregateId).distinct().toArray(Long[]::new);
+        Map<Long, CardState> cards = new HashMap<>();
+        jdbcTemplate.query("SELECT card_id, user_id, status FROM projected_card_statuses WHERE card_id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", cardIds)),
+                rs -> {
+                    cards.put(rs.getLong("card_id"), new CardState(rs.getLong("user_id"), rs.getString("status")));
+                });
+        return cards;
+    }
+
+    private void writeCards(Map<Long, CardState> cards, Set<Long> changed, Set<Long> deleted) {
+        if (!changed.isEmpty()) {
+            List<Long> ids = new ArrayList<>(changed);
+            jdbcTemplate.batchUpdate(UPSERT_CARD_SQL, ids, ids.size(), (ps, cardId) -> {
+                CardState card = cards.get(cardId);
+                ps.setLong(1, cardId);
+                ps.setLong(2, card.userId());
+                ps.setString(3, card.status());
+            });
+        }
+        if (!deleted.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM projected_card_statuses WHERE card_id = ANY (?)",
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", deleted.toArray())));
+        }
+    }
+
+    private void writeCounts(Map<CountKey, Integer> counts) {
+        List<Map.Entry<CountKey, Integer>> deltas = counts.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .toList();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_COUNT_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getKey().userId());
+            ps.setString(2, delta.getKey().status());
+            ps.setInt(3, delta.getValue());
+        });
+    }
+
+    private record CardState(Long userId, String status) {
+    }
+
+    private record CountKey(Long userId, String status) {
+    }
+}
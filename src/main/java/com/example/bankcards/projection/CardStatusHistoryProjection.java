@@ -0,0 +1,76 @@
+package com.example.bankcards.projection;
+
+import com.example.bankcards.dto.event.CardCreatedPayload;
+import com.example.bankcards.dto.event.CardDeletedPayload;
+import com.example.bankcards.dto.event.CardStatusChangedPayload;
+import com.example.bankcards.dto.event.ReplayedCardEvent;
+import com.example.bankcards.service.contracts.CardProjection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every status a card went through in card_status_history, one row per event. A deleted card
+ * ends with the status DELETED.
+ */
+@Component
+@RequiredArgsConstructor
+public class CardStatusHistoryProjection implements CardProjection {
+
+    public static final String NAME = "card-status-history";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO card_status_history (event_id, card_id, status, changed_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (event_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void reset() {
+        jdbcTemplate.execute("TRUNCATE card_status_history");
+    }
+
+    @Override
+    public void apply(List<ReplayedCardEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (ReplayedCardEvent event : events) {
+            String status = statusAfter(event);
+            if (status != null) {
+                rows.add(new Object[]{event.id(), event.aggregateId(), status, Timestamp.valueOf(event.timestamp())});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    /**
+     * Statuses of the card, oldest first.
+     */
+    public List<String> historyOf(Long cardId) {
+        return jdbcTemplate.queryForList(
+                "SELECT status FROM card_status_history WHERE card_id = ? ORDER BY event_id", String.class, cardId);
+    }
+
+    private static String statusAfter(ReplayedCardEvent event) {
+        if (event.payload() instanceof CardCreatedPayload created) {
+            return created.status();
+        }
+        if (event.payload() instanceof CardStatusChangedPayload statusChanged) {
+            return statusChanged.newStatus();
+        }
+        if (event.payload() instanceof CardDeletedPayload) {
+            return "DELETED";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.projection.TransferView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads rows past their retention for archiving and deletes them once archived. Reads walk the
+ * ids in keyset chunks and stream every chunk through a server-side cursor, so only
+ * {@code fetchSize} rows are held in memory at a time.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArchiveRepository {
+
+    // Card numbers are looked up now: the cards may be gone by the time the archive is read
+    private static final String TRANSFERS_SQL =
+            "SELECT t.id, t.from_card_id, fc.card_number_last_four AS from_last_four, " +
+            "t.to_card_id, tc.card_number_last_four AS to_last_four, " +
+            "t.amount, t.status, t.description, t.user_id, t.created_at FROM transfers t " +
+            "LEFT JOIN cards fc ON fc.id = t.from_card_id " +
+            "LEFT JOIN cards tc ON tc.id = t.to_card_id " +
+            "WHERE t.created_at < ? AND t.id > ? ORDER BY t.id LIMIT ?";
+
+    private static final String CARD_EVENTS_SQL =
+            "SELECT id, aggregate_id, event_type, event_data, user_id, timestamp, dispatched_at FROM card_events " +
+            "WHERE timestamp < ? AND id > ? ORDER BY id LIMIT ?";
+
+    // Events the outbox relay has not published yet stay in the table whatever their age
+    private static final String DISPATCHED_CARD_EVENTS_SQL =
+            "SELECT id, aggregate_id, event_type, event_data, user_id, timestamp, dispatched_at FROM card_events " +
+            "WHERE timestamp < ? AND dispatched_at IS NOT NULL AND id > ? ORDER BY id LIMIT ?";
+
+    // The time bound prunes the partitions that cannot hold archived rows
+    private static final String DELETE_TRANSFERS_SQL =
+            "DELETE FROM transfers WHERE id = ANY (?) AND created_at < ?";
+
+    private static final String DELETE_CARD_EVENTS_SQL =
+            "DELETE FROM card_events WHERE id = ANY (?) AND timestamp < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams up to {@code limit} transfers created before {@code before} with ids above
+     * {@code afterId}, in id order. Must run in a transaction, which the cursor needs.
+     */
+    public void streamTransfers(LocalDateTime before, long afterId, int limit, int fetchSize,
+                                Consumer<TransferView> consumer) {
+        stream(TRANSFERS_SQL, before, afterId, limit, fetchSize, rs -> consumer.accept(new TransferView(
+                rs.getLong("id"),
+                rs.getLong("from_card_id"),
+                rs.getString("from_last_four"),
+                rs.getLong("to_card_id"),
+                rs.getString("to_last_four"),
+                rs.getBigDecimal("amount"),
+                Transfer.TransferStatus.valueOf(rs.getString("status")),
+                rs.getString("description"),
+                rs.getLong("user_id"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        )));
+    }
+
+    /**
+     * Streams up to {@code limit} card events older than {@code before} with ids above
+     * {@code afterId}, in id order, leaving out the undispatched ones if {@code dispatchedOnly}.
+     * Must run in a transaction, which the cursor needs.
+     */
+    public void streamCardEvents(LocalDateTime before, boolean dispatchedOnly, long afterId, int limit,
+                                 int fetchSize, Consumer<CardEvent> consumer) {
+        String sql = dispatchedOnly ? DISPATCHED_CARD_EVENTS_SQL : CARD_EVENTS_SQL;
+        stream(sql, before, afterId, limit, fetchSize, rs -> {
+            Timestamp dispatchedAt = rs.getTimestamp("dispatched_at");
+            consumer.accept(new CardEvent(
+                    rs.getLong("id"),
+                    rs.getLong("aggregate_id"),
+                    rs.getString("event_type"),
+                    rs.getString("event_data"),
+                    rs.getLong("user_id"),
+                    rs.getTimestamp("timestamp").toLocalDateTime(),
+                    dispatchedAt != null ? dispatchedAt.toLocalDateTime() : null
+            ));
+        });
+    }
+
+    public int deleteTransfers(List<Long> ids, LocalDateTime before) {
+        return delete(DELETE_TRANSFERS_SQL, ids, before);
+    }
+
+    public int deleteCardEvents(List<Long> ids, LocalDateTime before) {
+        return delete(DELETE_CARD_EVENTS_SQL, ids, before);
+    }
+
+    private void stream(String sql, LocalDateTime before, long afterId, int limit, int fetchSize, RowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(fetchSize);
+            ps.setTimestamp(1, Timestamp.valueOf(before));
+            ps.setLong(2, afterId);
+            ps.setInt(3, limit);
+            return ps;
+        }, handler::handle);
+    }
+
+    private int delete(String sql, List<Long> ids, LocalDateTime before) {
+        return jdbcTemplate.update(sql, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+            ps.setTimestamp(2, Timestamp.valueOf(before));
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.LedgerEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Conditional balance updates of the ATOMIC transfer mode. The status column holds the ordinal
+ * of {@link Card.CardStatus}. Every update returns the posted state of the card, so the caller
+ * never reads the row back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardBalanceRepository {
+
+    private static final String DEBIT_SQL =
+            "UPDATE cards SET balance = balance - ?, ledger_sequence = ledger_sequence + 1, updated_at = ? " +
+            "WHERE id = ? AND user_id = ? AND status = ? AND expiry_date >= ? AND balance >= ? AND deleted_at IS NULL " +
+            "RETURNING id, balance, ledger_sequence, card_number_last_four";
+
+    private static final String CREDIT_SQL =
+            "UPDATE cards SET balance = balance + ?, ledger_sequence = ledger_sequence + 1, updated_at = ? " +
+            "WHERE id = ? AND user_id = ? AND status = ? AND expiry_date >= ? AND deleted_at IS NULL " +
+            "RETURNING id, balance, ledger_sequence, card_number_last_four";
+
+    private static final RowMapper<PostedCard> POSTED_CARD = (rs, rowNum) -> new PostedCard(
+            rs.getLong("id"),
+            rs.getBigDecimal("balance"),
+            rs.getLong("ledger_sequence"),
+            rs.getString("card_number_last_four"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Debits an active, unexpired card of the given user if it holds enough money and advances
+     * its ledger sequence. Empty when any condition failed.
+     */
+    public Optional<PostedCard> debit(Long cardId, Long userId, BigDecimal amount, LocalDate today, LocalDateTime now) {
+        return jdbcTemplate.query(DEBIT_SQL, POSTED_CARD,
+                amount, Timestamp.valueOf(now), cardId, userId,
+                Card.CardStatus.ACTIVE.ordinal(), Date.valueOf(today), amount).stream().findFirst();
+    }
+
+    /**
+     * Credits an active, unexpired card of the given user and advances its ledger sequence.
+     * Empty when any condition failed.
+     */
+    public Optional<PostedCard> credit(Long cardId, Long userId, BigDecimal amount, LocalDate today, LocalDateTime now) {
+        return jdbcTemplate.query(CREDIT_SQL, POSTED_CARD,
+                amount, Timestamp.valueOf(now), cardId, userId,
+                Card.CardStatus.ACTIVE.ordinal(), Date.valueOf(today)).stream().findFirst();
+    }
+
+    /**
+     * Balance and ledger sequence of a card right after an update, and the last digits needed to mask it.
+     */
+    public record PostedCard(Long cardId, BigDecimal balance, long ledgerSequence, String cardNumberLastFour) {
+
+        public LedgerEntry ledgerEntry(BigDecimal amount, LocalDateTime postedAt) {
+            return new LedgerEntry(null, cardId, null, amount, ledgerSequence, balance, postedAt);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.repository.projection.CardBalanceSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Daily closing balances of cards, taken from the last ledger entry of each day.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardBalanceSnapshotRepository {
+
+    private static final String CARD_IDS_SQL =
+            "SELECT id FROM cards WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Cards without a ledger entry before the end of the day did not exist yet and are skipped
+    private static final String SNAPSHOT_SQL =
+            "INSERT INTO card_balance_snapshots (card_id, snapshot_date, balance, ledger_sequence) " +
+            "SELECT c.id, ?, e.balance_after, e.sequence FROM cards c " +
+            "CROSS JOIN LATERAL (SELECT balance_after, sequence FROM ledger_entries " +
+            "WHERE card_id = c.id AND created_at < ? ORDER BY sequence DESC LIMIT 1) e " +
+            "WHERE c.id BETWEEN ? AND ? " +
+            "ON CONFLICT (card_id, snapshot_date) DO NOTHING";
+
+    private static final String LATEST_BEFORE_SQL =
+            "SELECT card_id, snapshot_date, balance, ledger_sequence FROM card_balance_snapshots " +
+            "WHERE card_id = ? AND snapshot_date < ? ORDER BY snapshot_date DESC LIMIT 1";
+
+    private static final String DELTA_SQL =
+            "SELECT COUNT(*) AS entries, COALESCE(SUM(amount), 0) AS total FROM ledger_entries " +
+            "WHERE card_id = ? AND sequence > ? AND created_at <= ?";
+
+    private static final RowMapper<CardBalanceSnapshot> SNAPSHOT_MAPPER = (rs, rowNum) -> new CardBalanceSnapshot(
+            rs.getLong("card_id"),
+            rs.getDate("snapshot_date").toLocalDate(),
+            rs.getBigDecimal("balance"),
+            rs.getLong("ledger_sequence")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Next chunk of card ids in ascending order, strictly after {@code afterId}.
+     */
+    public List<Long> findCardIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList(CARD_IDS_SQL, Long.class, afterId, limit);
+    }
+
+    /**
+     * Writes the closing balance of {@code date} for the cards with ids in [fromId, toId].
+     * Snapshots that already exist are kept, so a day can be snapshotted again safely.
+     *
+     * @return the number of snapshots written
+     */
+    public int snapshotRange(LocalDate date, long fromId, long toId) {
+        return jdbcTemplate.update(SNAPSHOT_SQL,
+                Date.valueOf(date), Timestamp.valueOf(date.plusDays(1).atStartOfDay()), fromId, toId);
+    }
+
+    /**
+     * Latest snapshot of the card taken for a day before {@code date}.
+     */
+    public Optional<CardBalanceSnapshot> findLatestBefore(Long cardId, LocalDate date) {
+        return jdbcTemplate.query(LATEST_BEFORE_SQL, SNAPSHOT_MAPPER, cardId, Date.valueOf(date))
+                .stream().findFirst();
+    }
+
+    /**
+     * Sum of the card's ledger entries after {@code afterSequence} posted up to {@code at}.
+     */
+    public LedgerDelta sumEntriesAfter(Long cardId, long afterSequence, LocalDateTime at) {
+        return jdbcTemplate.queryForObject(DELTA_SQL,
+                (rs, rowNum) -> new LedgerDelta(rs.getInt("entries"), rs.getBigDecimal("total")),
+                cardId, afterSequence, Timestamp.valueOf(at));
+    }
+
+    public record LedgerDelta(int entries, BigDecimal total) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based lookups and JDBC batch inserts for importing many cards at once.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardBatchRepository {
+
+    // Rows whose number was inserted concurrently are skipped instead of failing the whole batch
+    private static final String INSERT_SQL =
+            "INSERT INTO cards (card_number_encrypted, card_number_hash, card_number_last_four, card_holder, " +
+            "expiry_date, cvv_encrypted, status, balance, ledger_sequence, user_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (card_number_hash) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Set<String> findExistingHashes(Collection<String> hashes) {
+        return new HashSet<>(jdbcTemplate.query("SELECT card_number_hash FROM cards WHERE card_number_hash = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", hashes.toArray())),
+                (rs, rowNum) -> rs.getString(1)));
+    }
+
+    public Set<Long> findExistingUserIds(Collection<Long> userIds) {
+        return new HashSet<>(jdbcTemplate.query("SELECT id FROM users WHERE id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", userIds.toArray())),
+                (rs, rowNum) -> rs.getLong(1)));
+    }
+
+    /**
+     * Inserts the cards as one batch in the caller's transaction and assigns the generated ids.
+     *
+     * @return the cards actually inserted; cards whose number already exists are left out
+     */
+    public List<Card> insertAll(List<Card> cards) {
+        LocalDateTime now = LocalDateTime.now();
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id", "card_number_hash"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Card card = cards.get(i);
+                        ps.setString(1, card.getCardNumberEncrypted());
+                        ps.setString(2, card.getCardNumberHash());
+                        ps.setString(3, card.getCardNumberLastFour());
+                        ps.setString(4, card.getCardHolder());
+                        ps.setDate(5, Date.valueOf(card.getExpiryDate()));
+                        ps.setString(6, card.getCvvEncrypted());
+                        ps.setInt(7, card.getStatus().ordinal());
+                        ps.setBigDecimal(8, card.getBalance());
+                        ps.setLong(9, card.getLedgerSequence());
+                        ps.setLong(10, card.getUser().getId());
+                        ps.setTimestamp(11, Timestamp.valueOf(now));
+                        ps.setTimestamp(12, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return cards.size();
+                    }
+                },
+                keyHolder
+        );
+
+        Map<String, Long> ids = new HashMap<>();
+        for (Map<String, Object> key : keyHolder.getKeyList()) {
+            ids.put((String) key.get("card_number_hash"), ((Number) key.get("id")).longValue());
+        }
+        List<Card> inserted = new ArrayList<>(ids.size());
+        for (Card card : cards) {
+            Long id = ids.get(card.getCardNumberHash());
+            if (id != null) {
+                card.setId(id);
+                card.setCreatedAt(now);
+                card.setUpdatedAt(now);
+                inserted.add(card);
+            }
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts card events with JDBC batches.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardEventBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO card_events (aggregate_id, event_type, event_data, user_id, timestamp) " +
+            "VALUES (?, ?, ?::jsonb, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts all events as one batch, in the caller's transaction if there is one.
+     */
+    public void insertAll(List<CardEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getAggregateId());
+            ps.setString(2, event.getEventType());
+            ps.setString(3, event.getEventData());
+            ps.setLong(4, event.getUserId());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getTimestamp()));
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * card_events read as an outbox: rows with no dispatched_at are waiting for delivery.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardEventOutboxRepository {
+
+    // SKIP LOCKED lets concurrent relays take disjoint batches instead of waiting for each other
+    private static final String LOCK_PENDING_SQL =
+            "SELECT id, aggregate_id, event_type, event_data, user_id, timestamp FROM card_events " +
+            "WHERE dispatched_at IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_DISPATCHED_SQL =
+            "UPDATE card_events SET dispatched_at = ? WHERE id = ANY (?)";
+
+    private static final RowMapper<CardEvent> EVENT_MAPPER = (rs, rowNum) -> new CardEvent(
+            rs.getLong("id"),
+            rs.getLong("aggregate_id"),
+            rs.getString("event_type"),
+            rs.getString("event_data"),
+            rs.getLong("user_id"),
+            rs.getTimestamp("timestamp").toLocalDateTime(),
+            null
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks up to {@code limit} pending events, oldest first, until the caller's transaction ends.
+     * Must run in a transaction.
+     */
+    public List<CardEvent> lockPending(int limit) {
+        return jdbcTemplate.query(LOCK_PENDING_SQL, EVENT_MAPPER, limit);
+    }
+
+    /**
+     * Marks all given events dispatched with one statement.
+     */
+    public int markDispatched(List<Long> ids, LocalDateTime dispatchedAt) {
+        return jdbcTemplate.update(MARK_DISPATCHED_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(dispatchedAt));
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        });
+    }
+}
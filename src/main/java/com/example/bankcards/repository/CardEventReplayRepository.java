@@ -0,0 +1,122 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.repository.projection.ProjectionCheckpoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Card events read for replay, and the checkpoints of the projections built from them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardEventReplayRepository {
+
+    private static final String STREAM_SQL =
+            "SELECT id, aggregate_id, event_type, event_data, user_id, timestamp FROM card_events " +
+            "WHERE aggregate_id >= ? AND aggregate_id < ? AND id > ? AND id <= ? ORDER BY id";
+
+    // Ids are allocated before commit, so an open transaction may still add ids below the newest
+    // visible one. Stopping before the first recent event leaves those to a later run.
+    private static final String HIGH_WATER_SQL =
+            "SELECT COALESCE((SELECT MIN(id) - 1 FROM card_events WHERE timestamp >= ?), " +
+            "(SELECT MAX(id) FROM card_events), 0)";
+
+    private static final String AGGREGATE_BOUNDS_SQL =
+            "SELECT MIN(aggregate_id), MAX(aggregate_id) FROM card_events";
+
+    private static final String FIND_CHECKPOINTS_SQL =
+            "SELECT range_start, range_end, last_event_id FROM projection_checkpoints " +
+            "WHERE projection = ? ORDER BY range_start";
+
+    private static final String INSERT_CHECKPOINT_SQL =
+            "INSERT INTO projection_checkpoints (projection, range_start, range_end, last_event_id) VALUES (?, ?, ?, 0)";
+
+    private static final String SAVE_CHECKPOINT_SQL =
+            "UPDATE projection_checkpoints SET last_event_id = ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE projection = ? AND range_start = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams the events of aggregate ids [rangeStart, rangeEnd) in (afterId, upToId] in id
+     * order through a forward-only cursor. Must run in a transaction, which the cursor needs.
+     */
+    public void stream(long rangeStart, long rangeEnd, long afterId, long upToId, int fetchSize,
+                       Consumer<CardEvent> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(STREAM_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, rangeStart);
+            ps.setLong(2, rangeEnd);
+            ps.setLong(3, afterId);
+            ps.setLong(4, upToId);
+            return ps;
+        }, rs -> {
+            consumer.accept(new CardEvent(
+                    rs.getLong("id"),
+                    rs.getLong("aggregate_id"),
+                    rs.getString("event_type"),
+                    rs.getString("event_data"),
+                    rs.getLong("user_id"),
+                    rs.getTimestamp("timestamp").toLocalDateTime(),
+                    null
+            ));
+        });
+    }
+
+    /**
+     * Highest event id below every event recorded at or after {@code settledBefore}. Replaying
+     * up to it cannot skip an event committed later, unless its transaction stayed open longer
+     * than the lag between {@code settledBefore} and now.
+     */
+    public long findHighWaterId(LocalDateTime settledBefore) {
+        Long highWaterId = jdbcTemplate.queryForObject(HIGH_WATER_SQL, Long.class, Timestamp.valueOf(settledBefore));
+        return highWaterId != null ? highWaterId : 0;
+    }
+
+    /**
+     * Smallest and largest aggregate id, empty when there are no events.
+     */
+    public Optional<AggregateIdBounds> findAggregateIdBounds() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(AGGREGATE_BOUNDS_SQL, (rs, rowNum) -> {
+            Long min = rs.getObject(1, Long.class);
+            return min != null ? new AggregateIdBounds(min, rs.getLong(2)) : null;
+        }));
+    }
+
+    public List<ProjectionCheckpoint> findCheckpoints(String projection) {
+        return jdbcTemplate.query(FIND_CHECKPOINTS_SQL, (rs, rowNum) -> new ProjectionCheckpoint(
+                rs.getLong("range_start"),
+                rs.getLong("range_end"),
+                rs.getLong("last_event_id")
+        ), projection);
+    }
+
+    /**
+     * Replaces the checkpoints of the projection with the given ranges, each starting from scratch.
+     */
+    public void resetCheckpoints(String projection, List<ProjectionCheckpoint> ranges) {
+        jdbcTemplate.update("DELETE FROM projection_checkpoints WHERE projection = ?", projection);
+        jdbcTemplate.batchUpdate(INSERT_CHECKPOINT_SQL, ranges, ranges.size(), (ps, range) -> {
+            ps.setString(1, projection);
+            ps.setLong(2, range.rangeStart());
+            ps.setLong(3, range.rangeEnd());
+        });
+    }
+
+    public void saveCheckpoint(String projection, long rangeStart, long lastEventId) {
+        jdbcTemplate.update(SAVE_CHECKPOINT_SQL, lastEventId, projection, rangeStart);
+    }
+
+    public record AggregateIdBounds(long min, long max) {
+    }
+}
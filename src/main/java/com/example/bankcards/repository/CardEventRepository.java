@@ -1,11 +1,31 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface CardEventRepository extends JpaRepository<CardEvent, Long> {
+
+    String PAYLOAD_FILTER =
+        "WHERE event_data @> CAST(:payload AS jsonb) " +
+        "AND (CAST(:eventType AS varchar) IS NULL OR event_type = :eventType) " +
+        "AND (CAST(:cardId AS bigint) IS NULL OR aggregate_id = :cardId)";
+
+    /**
+     * Events whose payload contains the given JSON object, newest first.
+     */
+    @Query(value = "SELECT * FROM card_events " + PAYLOAD_FILTER + " ORDER BY id DESC",
+           countQuery = "SELECT COUNT(*) FROM card_events " + PAYLOAD_FILTER,
+           nativeQuery = true)
+    Page<CardEvent> findByPayload(@Param("eventType") String eventType,
+                                  @Param("cardId") Long cardId,
+                                  @Param("payload") String payload,
+                                  Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Set-based expiry of cards. The status column holds the ordinal of {@link Card.CardStatus}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardExpiryRepository {
+
+    // SKIP LOCKED leaves rows locked by transfers or by a sweeper on another node to a later batch;
+    // expiry_date order follows idx_cards_status_expiry_date, so no sort is needed
+    private static final String EXPIRE_SQL =
+            "WITH expired AS (" +
+            "SELECT id FROM cards WHERE status = ? AND expiry_date < ? AND deleted_at IS NULL " +
+            "ORDER BY expiry_date LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "UPDATE cards c SET status = ?, updated_at = ? FROM expired WHERE c.id = expired.id " +
+            "RETURNING c.id, c.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Marks up to {@code limit} active cards that expired before {@code today} as expired and
+     * returns them. Runs in the caller's transaction, which holds the row locks until it ends.
+     */
+    public List<ExpiredCard> expireBatch(LocalDate today, int limit, LocalDateTime now) {
+        return jdbcTemplate.query(EXPIRE_SQL,
+                (rs, rowNum) -> new ExpiredCard(rs.getLong("id"), rs.getLong("user_id")),
+                Card.CardStatus.ACTIVE.ordinal(),
+                Date.valueOf(today),
+                limit,
+                Card.CardStatus.EXPIRED.ordinal(),
+                Timestamp.valueOf(now));
+    }
+
+    public record ExpiredCard(Long cardId, Long userId) {
+    }
+}
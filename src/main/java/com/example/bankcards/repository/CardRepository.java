@@ -4,12 +4,15 @@ import com.example.bankcards.entity.*;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -19,7 +22,31 @@ public interface CardRepository extends JpaRepository<Card, Long> {
     @Query("select c from Card c where c.id = :id")
     Optional<Card> findByIdForUpdate(@Param("id") Long id);
 
-    Page<Card> findByUserId(Long userId, Pageable pageable);
+    /**
+     * Locks all given cards in a single statement. Rows are locked in ascending id order,
+     * so concurrent callers always acquire locks in the same order and cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id in :ids and c.deletedAt is null order by c.id")
+    List<Card> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    Page<Card> findByUserIdAndDeletedAtIsNull(Long userId, Pageable pageable);
+
+    Page<Card> findByDeletedAtIsNull(Pageable pageable);
+
+    /**
+     * Like {@link #findByUserIdAndDeletedAtIsNull} without the count query: one extra row tells whether there is a next page.
+     */
+    Slice<Card> findSliceByUserIdAndDeletedAtIsNull(Long userId, Pageable pageable);
+
+    Slice<Card> findSliceByDeletedAtIsNull(Pageable pageable);
+
+    long countByUserIdAndDeletedAtIsNull(Long userId);
+
+    /**
+     * Includes deleted cards: they keep their ledger, so their user cannot be deleted.
+     */
+    boolean existsByUserId(Long userId);
 
     Page<Card> findByStatus(Card.CardStatus status, Pageable pageable);
 
@@ -28,8 +55,8 @@ public interface CardRepository extends JpaRepository<Card, Long> {
                                      @Param("status") Card.CardStatus status,
                                      Pageable pageable);
 
-    boolean existsByCardNumberEncrypted(String cardNumberEncrypted);
+    boolean existsByCardNumberHash(String cardNumberHash);
 
-    @Query("SELECT c FROM Card c WHERE c.id = :cardId AND c.user.id = :userId")
+    @Query("SELECT c FROM Card c WHERE c.id = :cardId AND c.user.id = :userId AND c.deletedAt IS NULL")
     Optional<Card> findByIdAndUserId(@Param("cardId") Long cardId, @Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.repository.projection.TransferView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+/**
+ * Reads whole tables for export through a forward-only server-side cursor, so only
+ * {@code fetchSize} rows are held in memory at a time. The reads must run in a transaction,
+ * which the cursor needs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExportRepository {
+
+    private static final String CARDS_SQL =
+            "SELECT c.id, c.card_number_last_four, c.card_holder, c.expiry_date, c.status, c.balance, " +
+            "c.user_id, u.username, c.created_at, c.updated_at FROM cards c " +
+            "JOIN users u ON u.id = c.user_id WHERE c.deleted_at IS NULL ORDER BY c.id";
+
+    private static final String TRANSFERS_SQL =
+            "SELECT t.id, t.from_card_id, fc.card_number_last_four AS from_last_four, " +
+            "t.to_card_id, tc.card_number_last_four AS to_last_four, " +
+            "t.amount, t.status, t.description, t.user_id, t.created_at FROM transfers t " +
+            "LEFT JOIN cards fc ON fc.id = t.from_card_id " +
+            "LEFT JOIN cards tc ON tc.id = t.to_card_id ORDER BY t.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamCards(int fetchSize, Consumer<CardView> consumer) {
+        stream(CARDS_SQL, fetchSize, rs -> consumer.accept(new CardView(
+                rs.getLong("id"),
+                rs.getString("card_number_last_four"),
+                rs.getString("card_holder"),
+                rs.getDate("expiry_date").toLocalDate(),
+                Card.CardStatus.values()[rs.getInt("status")],
+                rs.getBigDecimal("balance"),
+                rs.getLong("user_id"),
+                rs.getString("username"),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getTimestamp("updated_at").toLocalDateTime()
+        )));
+    }
+
+    public void streamTransfers(int fetchSize, Consumer<TransferView> consumer) {
+        stream(TRANSFERS_SQL, fetchSize, rs -> consumer.accept(new TransferView(
+                rs.getLong("id"),
+                rs.getLong("from_card_id"),
+                rs.getString("from_last_four"),
+                rs.getLong("to_card_id"),
+                rs.getString("to_last_four"),
+                rs.getBigDecimal("amount"),
+                Transfer.TransferStatus.valueOf(rs.getString("status")),
+                rs.getString("description"),
+                rs.getLong("user_id"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        )));
+    }
+
+    private void stream(String sql, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, handler);
+    }
+}
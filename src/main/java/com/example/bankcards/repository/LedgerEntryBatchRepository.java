@@ -0,0 +1,44 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.LedgerEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Appends ledger entries with JDBC batches. Entries are never updated or deleted.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LedgerEntryBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ledger_entries (card_id, transfer_id, amount, sequence, balance_after, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts all entries in the caller's transaction.
+     */
+    public void insertAll(List<LedgerEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setLong(1, entry.getCardId());
+            if (entry.getTransferId() != null) {
+                ps.setLong(2, entry.getTransferId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setBigDecimal(3, entry.getAmount());
+            ps.setLong(4, entry.getSequence());
+            ps.setBigDecimal(5, entry.getBalanceAfter());
+            ps.setTimestamp(6, Timestamp.valueOf(entry.getCreatedAt()));
+        });
+    }
+}
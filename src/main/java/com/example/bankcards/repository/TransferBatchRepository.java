@@ -0,0 +1,73 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Transfer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts transfers with JDBC batches. Transfer ids are generated by an identity column,
+ * which prevents Hibernate from batching the inserts itself.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transfers (from_card_id, to_card_id, amount, status, description, user_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts all transfers and assigns the generated ids back to them.
+     * Runs in the caller's transaction.
+     */
+    public void insertAll(List<Transfer> transfers) {
+        for (int from = 0; from < transfers.size(); from += BATCH_SIZE) {
+            insertChunk(transfers.subList(from, Math.min(from + BATCH_SIZE, transfers.size())));
+        }
+    }
+
+    private void insertChunk(List<Transfer> chunk) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Transfer transfer = chunk.get(i);
+                        ps.setLong(1, transfer.getFromCard().getId());
+                        ps.setLong(2, transfer.getToCard().getId());
+                        ps.setBigDecimal(3, transfer.getAmount());
+                        ps.setString(4, transfer.getStatus().name());
+                        ps.setString(5, transfer.getDescription());
+                        ps.setLong(6, transfer.getUserId());
+                        ps.setTimestamp(7, Timestamp.valueOf(transfer.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < chunk.size(); i++) {
+            chunk.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+}
@@ -1,19 +1,81 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.*;
+import com.example.bankcards.repository.projection.TransferView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface TransferRepository extends JpaRepository<Transfer, Long> {
-    Page<Transfer> findByUserId(Long userId, Pageable pageable);
+    String VIEW = "new com.example.bankcards.repository.projection.TransferView(" +
+            "t.id, fc.id, fc.cardNumberLastFour, tc.id, tc.cardNumberLastFour, " +
+            "t.amount, t.status, t.description, t.userId, t.createdAt)";
+
+    /**
+     * Every history query is bounded by [from, to) on created_at so that only the monthly
+     * partitions overlapping the period are scanned.
+     */
+    String IN_PERIOD = "t.createdAt >= :from AND t.createdAt < :to";
 
-    @Query("SELECT t FROM Transfer t WHERE (t.fromCard.id = :cardId OR t.toCard.id = :cardId) AND t.userId = :userId ORDER BY t.createdAt DESC")
-    Page<Transfer> findByCardIdAndUserId(@Param("cardId") Long cardId,
-                                         @Param("userId") Long userId,
+    /**
+     * Page of the user's transfers with their cards, one select plus one count statement.
+     */
+    @Query(value = "SELECT " + VIEW + " FROM Transfer t JOIN t.fromCard fc JOIN t.toCard tc " +
+                   "WHERE t.userId = :userId AND " + IN_PERIOD,
+           countQuery = "SELECT COUNT(t) FROM Transfer t WHERE t.userId = :userId AND " + IN_PERIOD)
+    Page<TransferView> findViewsByUserId(@Param("userId") Long userId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
                                          Pageable pageable);
+
+    /**
+     * Same page as {@link #findViewsByUserId} without the count statement.
+     */
+    @Query("SELECT " + VIEW + " FROM Transfer t JOIN t.fromCard fc JOIN t.toCard tc " +
+           "WHERE t.userId = :userId AND " + IN_PERIOD)
+    Slice<TransferView> findViewSliceByUserId(@Param("userId") Long userId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    @Query("SELECT " + VIEW + " FROM Transfer t JOIN t.fromCard fc JOIN t.toCard tc WHERE t.id = :id")
+    Optional<TransferView> findViewById(@Param("id") Long id);
+
+    /**
+     * First page of the keyset pagination, newest first. Served by the
+     * (user_id, created_at DESC, id DESC) index without a count query.
+     */
+    @Query("SELECT " + VIEW + " FROM Transfer t JOIN t.fromCard fc JOIN t.toCard tc " +
+           "WHERE t.userId = :userId AND " + IN_PERIOD + " ORDER BY t.createdAt DESC, t.id DESC")
+    List<TransferView> findFirstByUserId(@Param("userId") Long userId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         Limit limit);
+
+    /**
+     * Next page of the keyset pagination: transfers strictly after the given (createdAt, id) position.
+     * The redundant {@code createdAt <= :createdAt} bound lets the index scan start at the position.
+     */
+    @Query("SELECT " + VIEW + " FROM Transfer t JOIN t.fromCard fc JOIN t.toCard tc " +
+           "WHERE t.userId = :userId AND " + IN_PERIOD + " " +
+           "AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TransferView> findNextByUserId(@Param("userId") Long userId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
 }
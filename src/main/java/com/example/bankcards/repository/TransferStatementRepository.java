@@ -0,0 +1,103 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.transfer.TransferPeriod;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.projection.TransferView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transfer history of a single card. A card appears either as the source or as the destination
+ * of a transfer; an OR over both columns cannot be served by one index, so each side is read by
+ * its own range scan on (from_card_id | to_card_id, created_at, id), newest first, and the two
+ * ordered results are merged with UNION ALL. Every branch stops after the rows the page needs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferStatementRepository {
+
+    private static final String BRANCH =
+            "(SELECT * FROM transfers WHERE %s = ? AND user_id = ? AND created_at >= ? AND created_at < ? %s " +
+            "ORDER BY created_at DESC, id DESC LIMIT ?)";
+
+    private static final String KEYSET_CONDITION =
+            "AND created_at <= ? AND (created_at < ? OR id < ?)";
+
+    private static final String SELECT_SQL =
+            "SELECT t.id, t.from_card_id, fc.card_number_last_four AS from_last_four, " +
+            "t.to_card_id, tc.card_number_last_four AS to_last_four, " +
+            "t.amount, t.status, t.description, t.user_id, t.created_at " +
+            "FROM (%s UNION ALL %s) t " +
+            "JOIN cards fc ON fc.id = t.from_card_id " +
+            "JOIN cards tc ON tc.id = t.to_card_id " +
+            "ORDER BY t.created_at DESC, t.id DESC LIMIT ? OFFSET ?";
+
+    private static final String PAGE_SQL = String.format(SELECT_SQL,
+            String.format(BRANCH, "from_card_id", ""),
+            String.format(BRANCH, "to_card_id", ""));
+
+    private static final String KEYSET_PAGE_SQL = String.format(SELECT_SQL,
+            String.format(BRANCH, "from_card_id", KEYSET_CONDITION),
+            String.format(BRANCH, "to_card_id", KEYSET_CONDITION));
+
+    private static final String COUNT_SQL =
+            "SELECT (SELECT COUNT(*) FROM transfers WHERE from_card_id = ? AND user_id = ? AND created_at >= ? AND created_at < ?) " +
+            "+ (SELECT COUNT(*) FROM transfers WHERE to_card_id = ? AND user_id = ? AND created_at >= ? AND created_at < ?)";
+
+    private static final RowMapper<TransferView> VIEW_MAPPER = (rs, rowNum) -> new TransferView(
+            rs.getLong("id"),
+            rs.getLong("from_card_id"),
+            rs.getString("from_last_four"),
+            rs.getLong("to_card_id"),
+            rs.getString("to_last_four"),
+            rs.getBigDecimal("amount"),
+            Transfer.TransferStatus.valueOf(rs.getString("status")),
+            rs.getString("description"),
+            rs.getLong("user_id"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Offset page of the card's transfers created in the period, newest first.
+     */
+    public List<TransferView> findPage(Long cardId, Long userId, TransferPeriod period, long offset, int limit) {
+        long branchLimit = offset + limit;
+        Timestamp from = Timestamp.valueOf(period.lowerBound());
+        Timestamp to = Timestamp.valueOf(period.upperBound());
+        return jdbcTemplate.query(PAGE_SQL, VIEW_MAPPER,
+                cardId, userId, from, to, branchLimit,
+                cardId, userId, from, to, branchLimit,
+                limit, offset);
+    }
+
+    /**
+     * Keyset page of the card's transfers created in the period, strictly after the given
+     * (createdAt, id) position.
+     */
+    public List<TransferView> findPageAfter(Long cardId, Long userId, TransferPeriod period,
+                                            LocalDateTime createdAt, Long id, int limit) {
+        Timestamp from = Timestamp.valueOf(period.lowerBound());
+        Timestamp to = Timestamp.valueOf(period.upperBound());
+        Timestamp position = Timestamp.valueOf(createdAt);
+        return jdbcTemplate.query(KEYSET_PAGE_SQL, VIEW_MAPPER,
+                cardId, userId, from, to, position, position, id, limit,
+                cardId, userId, from, to, position, position, id, limit,
+                limit, 0);
+    }
+
+    public long count(Long cardId, Long userId, TransferPeriod period) {
+        Timestamp from = Timestamp.valueOf(period.lowerBound());
+        Timestamp to = Timestamp.valueOf(period.upperBound());
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class,
+                cardId, userId, from, to, cardId, userId, from, to);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Closing balance of a card at the end of {@code snapshotDate} and the sequence of the last
+ * ledger entry it includes.
+ */
+public record CardBalanceSnapshot(
+        Long cardId,
+        LocalDate snapshotDate,
+        BigDecimal balance,
+        Long ledgerSequence
+) {
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.Card;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a card and its owner's username needed for a {@code CardResponse}, read without
+ * loading the entity or its lazy user.
+ */
+public record CardView(
+        Long id,
+        String cardNumberLastFour,
+        String cardHolder,
+        LocalDate expiryDate,
+        Card.CardStatus status,
+        BigDecimal balance,
+        Long userId,
+        String username,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
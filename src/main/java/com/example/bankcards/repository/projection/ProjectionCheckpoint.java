@@ -0,0 +1,11 @@
+package com.example.bankcards.repository.projection;
+
+/**
+ * Id of the last card event a projection applied from aggregate ids [rangeStart, rangeEnd).
+ */
+public record ProjectionCheckpoint(
+        long rangeStart,
+        long rangeEnd,
+        long lastEventId
+) {
+}
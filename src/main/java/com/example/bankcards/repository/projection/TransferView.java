@@ -0,0 +1,24 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.Transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a transfer and its two cards needed for a {@code TransferResponse}, selected in
+ * one statement instead of loading the lazy card associations row by row.
+ */
+public record TransferView(
+        Long id,
+        Long fromCardId,
+        String fromCardLastFour,
+        Long toCardId,
+        String toCardLastFour,
+        BigDecimal amount,
+        Transfer.TransferStatus status,
+        String description,
+        Long userId,
+        LocalDateTime createdAt
+) {
+}
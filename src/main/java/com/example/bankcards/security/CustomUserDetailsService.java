@@ -19,6 +19,7 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -43,6 +44,19 @@ public class CustomUserDetailsService implements UserDetailsService {
         );
     }
 
+    /**
+     * Loads the principal of a JWT-authenticated request, from the cache when possible.
+     */
+    @Transactional(readOnly = true)
+    public UserPrincipal loadPrincipalByUsername(String username) {
+        UserPrincipal principal = principalCache.get(username);
+        if (principal == null) {
+            principal = UserPrincipal.from(loadUserEntityByUsername(username));
+            principalCache.put(principal);
+        }
+        return principal;
+    }
+
     @Transactional(readOnly = true)
     public User loadUserEntityByUsername(String username) {
         return userRepository.findByUsername(username)
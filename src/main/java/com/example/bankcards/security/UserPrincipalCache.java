@@ -0,0 +1,52 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.util.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Principals of recently authenticated users by username, so that JWT requests do not
+ * query the users table every time. Entries must be evicted when a user changes.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final BoundedTtlCache<String, UserPrincipal> cache;
+
+    public UserPrincipalCache(MeterRegistry meterRegistry,
+                              @Value("${app.security.principal-cache.size:10000}") int cacheSize,
+                              @Value("${app.security.principal-cache.ttl-seconds:60}") long cacheTtlSeconds) {
+        this.cache = new BoundedTtlCache<>(cacheSize, Duration.ofSeconds(cacheTtlSeconds));
+        this.cache.registerMetrics(meterRegistry, "user-principals");
+    }
+
+    public UserPrincipal get(String username) {
+        return cache.get(username);
+    }
+
+    public void put(UserPrincipal principal) {
+        cache.put(principal.getUsername(), principal);
+    }
+
+    /**
+     * Evicts the user now and, inside a transaction, once more after commit: a request running
+     * concurrently with the transaction could otherwise cache the old row again.
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
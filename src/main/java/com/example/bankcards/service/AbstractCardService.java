@@ -17,6 +17,7 @@ abstract public class AbstractCardService {
 
     protected Card getCardWithAuth(Long cardId, Long userId) {
         Card card = cardRepository.findById(cardId)
+                .filter(found -> found.getDeletedAt() == null)
                 .orElseThrow(() -> new CardNotFoundException(cardId));
 
         if (!card.getUser().getId().equals(userId)) {
@@ -27,8 +28,7 @@ abstract public class AbstractCardService {
     }
 
     protected CardResponse mapToResponse(Card card) {
-        String decryptedCardNumber = encryptionUtil.decrypt(card.getCardNumberEncrypted());
-        String maskedCardNumber = maskingUtil.maskCardNumber(decryptedCardNumber);
+        String maskedCardNumber = maskingUtil.maskCardNumber(card.getCardNumberLastFour());
 
         return new CardResponse(
                 card.getId(),
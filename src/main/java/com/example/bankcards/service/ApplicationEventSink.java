@@ -0,0 +1,26 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.service.contracts.EventSink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Delivers relayed events to in-process {@code @EventListener} methods taking a {@link CardEvent}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "in-process", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ApplicationEventSink implements EventSink {
+
+    private final ApplicationEventPublisher publisher;
+
+    @Override
+    public void publish(List<CardEvent> events) {
+        events.forEach(publisher::publishEvent);
+    }
+}
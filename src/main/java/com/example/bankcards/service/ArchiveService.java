@@ -0,0 +1,189 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.repository.ArchiveRepository;
+import com.example.bankcards.repository.projection.TransferView;
+import com.example.bankcards.service.contracts.ArchiveServiceInterface;
+import com.example.bankcards.util.SegmentArchive;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Moves transfers and card events past their retention out of the database into segment
+ * archives under {@code app.archive.dir}: every keyset chunk of {@code segmentRows} rows is
+ * streamed into one segment, and its rows are deleted in batches once the segment is committed.
+ * A retention of 0 days keeps the rows in the database. While the outbox relay is enabled, card
+ * events are archived only once it has dispatched them; without a relay nothing ever dispatches
+ * them, so they are archived by age alone. Projections can no longer be rebuilt from the table
+ * after that (see {@link CardEventReplayService}).
+ */
+@Service
+@Slf4j
+public class ArchiveService implements ArchiveServiceInterface {
+
+    private final ArchiveRepository archiveRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final SegmentArchive transfers;
+    private final SegmentArchive cardEvents;
+    private final int transfersRetentionDays;
+    private final int cardEventsRetentionDays;
+    private final boolean relayEnabled;
+    private final int segmentRows;
+    private final int fetchSize;
+    private final int deleteBatchSize;
+
+    public ArchiveService(ArchiveRepository archiveRepository,
+                          ObjectMapper objectMapper,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${app.archive.dir:archive}") String dir,
+                          @Value("${app.archive.transfers.retention-days:0}") int transfersRetentionDays,
+                          @Value("${app.archive.card-events.retention-days:0}") int cardEventsRetentionDays,
+                          @Value("${app.archive.segment-rows:10000}") int segmentRows,
+                          @Value("${app.archive.block-rows:256}") int blockRows,
+                          @Value("${app.archive.fetch-size:500}") int fetchSize,
+                          @Value("${app.archive.delete-batch-size:1000}") int deleteBatchSize,
+                          @Value("${app.outbox.relay.enabled:false}") boolean relayEnabled) {
+        this.archiveRepository = archiveRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.transfers = new SegmentArchive(Path.of(dir, "transfers"), blockRows, this::idOf);
+        this.cardEvents = new SegmentArchive(Path.of(dir, "card-events"), blockRows, this::idOf);
+        this.transfersRetentionDays = transfersRetentionDays;
+        this.cardEventsRetentionDays = cardEventsRetentionDays;
+        this.segmentRows = segmentRows;
+        this.fetchSize = fetchSize;
+        this.deleteBatchSize = deleteBatchSize;
+        this.relayEnabled = relayEnabled;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 45 0 * * *}")
+    public void archiveExpired() {
+        LocalDate today = LocalDate.now();
+        if (transfersRetentionDays > 0) {
+            archiveTransfers(today.minusDays(transfersRetentionDays).atStartOfDay());
+        }
+        if (cardEventsRetentionDays > 0) {
+            archiveCardEvents(today.minusDays(cardEventsRetentionDays).atStartOfDay());
+        }
+    }
+
+    @Override
+    public int archiveTransfers(LocalDateTime before) {
+        int archived = archive(transfers,
+                (afterId, sink) -> archiveRepository.streamTransfers(before, afterId, segmentRows, fetchSize,
+                        transfer -> sink.accept(new Row(transfer.id(), toJson(transfer)))),
+                ids -> archiveRepository.deleteTransfers(ids, before));
+        log.info("Archived {} transfers created before {}", archived, before);
+        return archived;
+    }
+
+    @Override
+    public int archiveCardEvents(LocalDateTime before) {
+        int archived = archive(cardEvents,
+                (afterId, sink) -> archiveRepository.streamCardEvents(before, relayEnabled, afterId, segmentRows, fetchSize,
+                        event -> sink.accept(new Row(event.getId(), toJson(event)))),
+                ids -> archiveRepository.deleteCardEvents(ids, before));
+        log.info("Archived {} card events older than {}", archived, before);
+        return archived;
+    }
+
+    @Override
+    public Optional<TransferView> findArchivedTransfer(Long transferId) {
+        return transfers.find(transferId).map(line -> {
+            try {
+                return objectMapper.readValue(line, TransferView.class);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Corrupt archived transfer " + transferId, ex);
+            }
+        });
+    }
+
+    @Override
+    public long lastArchivedCardEventId() {
+        return cardEvents.lastId();
+    }
+
+    private int archive(SegmentArchive archive, ChunkReader reader, Function<List<Long>, Integer> deleter) {
+        int archived = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = new ArrayList<>(segmentRows);
+            long chunkAfterId = afterId;
+            try (SegmentArchive.Writer writer = archive.newSegment()) {
+                transactionTemplate.executeWithoutResult(status -> reader.read(chunkAfterId, row -> {
+                    writer.append(row.id(), row.json());
+                    ids.add(row.id());
+                }));
+                writer.commit();
+            }
+            if (ids.isEmpty()) {
+                return archived;
+            }
+
+            for (int from = 0; from < ids.size(); from += deleteBatchSize) {
+                deleter.apply(ids.subList(from, Math.min(from + deleteBatchSize, ids.size())));
+            }
+            archived += ids.size();
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < segmentRows) {
+                return archived;
+            }
+        }
+    }
+
+    private String toJson(TransferView transfer) {
+        try {
+            return objectMapper.writeValueAsString(transfer);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Error serializing transfer " + transfer.id(), ex);
+        }
+    }
+
+    private String toJson(CardEvent event) {
+        try {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("id", event.getId());
+            node.put("aggregateId", event.getAggregateId());
+            node.put("eventType", event.getEventType());
+            node.put("userId", event.getUserId());
+            node.put("timestamp", event.getTimestamp().toString());
+            node.put("dispatchedAt", event.getDispatchedAt() != null ? event.getDispatchedAt().toString() : null);
+            node.set("data", objectMapper.readTree(event.getEventData()));
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Error serializing card event " + event.getId(), ex);
+        }
+    }
+
+    private long idOf(String line) {
+        try {
+            return objectMapper.readTree(line).get("id").asLong();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Corrupt archive line", ex);
+        }
+    }
+
+    private record Row(long id, String json) {
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader {
+        void read(long afterId, Consumer<Row> sink);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardBalanceResponse;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository.LedgerDelta;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardBalanceSnapshot;
+import com.example.bankcards.service.contracts.BalanceSnapshotServiceInterface;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes daily closing balances of all cards and answers "balance of card X at time T" as the
+ * nearest earlier snapshot plus the ledger entries posted since, which is at most about a day
+ * of entries once snapshots are taken daily.
+ */
+@Service
+@Slf4j
+public class BalanceSnapshotService implements BalanceSnapshotServiceInterface {
+
+    private final CardBalanceSnapshotRepository snapshotRepository;
+    private final CardRepository cardRepository;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    public BalanceSnapshotService(CardBalanceSnapshotRepository snapshotRepository,
+                                  CardRepository cardRepository,
+                                  @Value("${app.balance-snapshot.chunk-size:1000}") int chunkSize,
+                                  @Value("${app.balance-snapshot.parallelism:4}") int parallelism) {
+        this.snapshotRepository = snapshotRepository;
+        this.cardRepository = cardRepository;
+        this.chunkSize = chunkSize;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                task -> new Thread(task, "balance-snapshot-" + threads.incrementAndGet()));
+    }
+
+    @Scheduled(cron = "${app.balance-snapshot.cron:0 5 0 * * *}")
+    public void snapshotPreviousDay() {
+        takeSnapshots(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Walks the cards by id in chunks and snapshots every chunk on the worker pool. Only the ids
+     * of the current chunk are held in memory; each chunk is one INSERT ... SELECT.
+     *
+     * @return the number of snapshots written
+     */
+    @Override
+    public int takeSnapshots(LocalDate date) {
+        log.info("Taking balance snapshots for {}", date);
+
+        List<Future<Integer>> chunks = new ArrayList<>();
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = snapshotRepository.findCardIdsAfter(afterId, chunkSize)).isEmpty()) {
+            long fromId = ids.get(0);
+            long toId = ids.get(ids.size() - 1);
+            chunks.add(executor.submit(() -> snapshotRepository.snapshotRange(date, fromId, toId)));
+            afterId = toId;
+        }
+
+        int written = 0;
+        try {
+            for (Future<Integer> chunk : chunks) {
+                written += chunk.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Balance snapshot for " + date + " was interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Balance snapshot for " + date + " failed", ex.getCause());
+        }
+
+        log.info("Wrote {} balance snapshots for {} in {} chunks", written, date, chunks.size());
+        return written;
+    }
+
+    @Override
+    public CardBalanceResponse getBalanceAt(Long cardId, LocalDateTime at) {
+        if (!cardRepository.existsById(cardId)) {
+            throw new CardNotFoundException(cardId);
+        }
+
+        // Snapshots of earlier days only contain entries posted before the requested time
+        Optional<CardBalanceSnapshot> snapshot = snapshotRepository.findLatestBefore(cardId, at.toLocalDate());
+        long afterSequence = snapshot.map(CardBalanceSnapshot::ledgerSequence).orElse(0L);
+        LedgerDelta delta = snapshotRepository.sumEntriesAfter(cardId, afterSequence, at);
+
+        // Before the card's opening entry there is no history: the card did not exist yet, or it
+        // predates the ledger and its opening entry is dated when the ledger was introduced
+        if (snapshot.isEmpty() && delta.entries() == 0) {
+            throw new ResourceNotFoundException("Card " + cardId + " has no ledger history at " + at);
+        }
+
+        BigDecimal balance = snapshot.map(CardBalanceSnapshot::balance).orElse(BigDecimal.ZERO).add(delta.total());
+        return new CardBalanceResponse(cardId, at, balance,
+                snapshot.map(CardBalanceSnapshot::snapshotDate).orElse(null), delta.entries());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -5,11 +5,14 @@ import com.example.bankcards.dto.card.CardResponse;
 import com.example.bankcards.dto.card.CardStatusUpdateRequest;
 import com.example.bankcards.dto.card.CardUpdateRequest;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.LedgerEntry;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.*;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryBatchRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.contracts.CardCommandServiceInterface;
+import com.example.bankcards.util.BlindIndexUtil;
 import com.example.bankcards.util.CardMaskingUtil;
 import com.example.bankcards.util.EncryptionUtil;
 import jakarta.transaction.Transactional;
@@ -18,6 +21,8 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @Slf4j
@@ -25,15 +30,21 @@ public class CardCommandService extends AbstractCardService implements CardComma
 
     private final UserRepository userRepository;
     private final CardEventService eventService;
+    private final BlindIndexUtil blindIndexUtil;
+    private final LedgerEntryBatchRepository ledgerRepository;
     
     public CardCommandService(CardRepository cardRepository, 
                             EncryptionUtil encryptionUtil, 
                             CardMaskingUtil maskingUtil, 
                             UserRepository userRepository,
-                            CardEventService eventService) {
+                            CardEventService eventService,
+                            BlindIndexUtil blindIndexUtil,
+                            LedgerEntryBatchRepository ledgerRepository) {
         super(cardRepository, encryptionUtil, maskingUtil);
         this.userRepository = userRepository;
         this.eventService = eventService;
+        this.blindIndexUtil = blindIndexUtil;
+        this.ledgerRepository = ledgerRepository;
     }
 
     @Override
@@ -47,8 +58,8 @@ public class CardCommandService extends AbstractCardService implements CardComma
         }
 
         // Check for duplicate card number
-        String encryptedCardNumber = encryptionUtil.encrypt(request.getCardNumber());
-        if (cardRepository.existsByCardNumberEncrypted(encryptedCardNumber)) {
+        String cardNumberHash = blindIndexUtil.hash(request.getCardNumber());
+        if (cardRepository.existsByCardNumberHash(cardNumberHash)) {
             throw new DuplicateResourceException("Card number already exists");
         }
 
@@ -63,15 +74,21 @@ public class CardCommandService extends AbstractCardService implements CardComma
 
         // Create card
         Card card = new Card();
-        card.setCardNumberEncrypted(encryptedCardNumber);
+        card.setCardNumberEncrypted(encryptionUtil.encrypt(request.getCardNumber()));
+        card.setCardNumberHash(cardNumberHash);
+        card.setCardNumberLastFour(request.getCardNumber().substring(request.getCardNumber().length() - 4));
         card.setCardHolder(request.getCardHolder());
         card.setExpiryDate(request.getExpiryDate());
         card.setCvvEncrypted(encryptionUtil.encrypt(request.getCvv()));
         card.setStatus(Card.CardStatus.ACTIVE);
-        card.setBalance(request.getInitialBalance() != null ? request.getInitialBalance() : BigDecimal.ZERO);
         card.setUser(user);
+        // The initial balance is the opening entry of the card's ledger
+        LedgerEntry opening = card.post(
+            request.getInitialBalance() != null ? request.getInitialBalance() : BigDecimal.ZERO, LocalDateTime.now());
 
         card = cardRepository.save(card);
+        opening.setCardId(card.getId());
+        ledgerRepository.insertAll(List.of(opening));
 
         // Record event
         eventService.recordCardCreatedEvent(card, user.getId());
@@ -142,7 +159,9 @@ public class CardCommandService extends AbstractCardService implements CardComma
         // Record event before deletion
         eventService.recordCardDeletedEvent(cardId, userId);
 
-        cardRepository.delete(card);
+        // Soft delete: the card's ledger entries are append-only and keep referencing it
+        card.setDeletedAt(LocalDateTime.now());
+        cardRepository.save(card);
         log.info("Card deleted: {}", cardId);
     }
 }
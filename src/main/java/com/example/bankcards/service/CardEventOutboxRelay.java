@@ -0,0 +1,141 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.repository.CardEventOutboxRepository;
+import com.example.bankcards.service.contracts.EventSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers pending card events from the outbox to the {@link EventSink}.
+ * <p>
+ * Every relay thread locks a batch of pending rows with {@code FOR UPDATE SKIP LOCKED},
+ * publishes it and marks it dispatched in the same transaction. Threads and application
+ * instances therefore never hold the same event at the same time and can be added to raise
+ * throughput. Delivery is at least once: a crash between publishing and commit redelivers the
+ * batch, so consumers should deduplicate by event id. Events of one card may be delivered out
+ * of order when several threads run.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true")
+@Slf4j
+public class CardEventOutboxRelay implements SmartLifecycle {
+
+    private final CardEventOutboxRepository outboxRepository;
+    private final EventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter dispatched;
+    private final int threads;
+    private final int batchSize;
+    private final long pollIntervalMs;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public CardEventOutboxRelay(CardEventOutboxRepository outboxRepository,
+                                EventSink sink,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.outbox.relay.threads:2}") int threads,
+                                @Value("${app.outbox.relay.batch-size:100}") int batchSize,
+                                @Value("${app.outbox.relay.poll-interval-ms:500}") long pollIntervalMs) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.dispatched = Counter.builder("card.events.dispatched").register(meterRegistry);
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    /**
+     * Dispatches one batch in its own transaction.
+     *
+     * @return the number of events dispatched
+     */
+    public int dispatchBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<CardEvent> events = outboxRepository.lockPending(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            sink.publish(events);
+
+            List<Long> ids = new ArrayList<>(events.size());
+            for (CardEvent event : events) {
+                ids.add(event.getId());
+            }
+            outboxRepository.markDispatched(ids, LocalDateTime.now());
+            return events.size();
+        });
+        dispatched.increment(count);
+        return count;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // A full batch suggests more is pending, so poll again right away
+                if (dispatchBatch() < batchSize) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.error("Card event relay failed, retrying in {} ms", pollIntervalMs, ex);
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        for (int i = 1; i <= threads; i++) {
+            Thread worker = new Thread(this::run, "card-event-relay-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Started {} card event relay threads", threads);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(pollIntervalMs * 2);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
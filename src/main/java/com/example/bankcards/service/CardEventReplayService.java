@@ -0,0 +1,265 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.event.CardCreatedPayload;
+import com.example.bankcards.dto.event.CardDeletedPayload;
+import com.example.bankcards.dto.event.CardStatusChangedPayload;
+import com.example.bankcards.dto.event.ReplayReport;
+import com.example.bankcards.dto.event.ReplayedCardEvent;
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.exception.ReplayNotPossibleException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.repository.CardEventReplayRepository;
+import com.example.bankcards.repository.CardEventReplayRepository.AggregateIdBounds;
+import com.example.bankcards.repository.projection.ProjectionCheckpoint;
+import com.example.bankcards.service.contracts.ArchiveServiceInterface;
+import com.example.bankcards.service.contracts.CardEventReplayServiceInterface;
+import com.example.bankcards.service.contracts.CardProjection;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Replays card events into {@link CardProjection}s. The aggregate ids are split into
+ * {@code parallelism} disjoint ranges that are replayed concurrently; every range streams its
+ * events in id order through a forward-only cursor and applies them in batches. Each batch is
+ * applied in its own transaction together with the checkpoint of its range, so a rebuild that
+ * stopped halfway resumes after the last applied batch without applying any event twice.
+ * Every worker holds two connections: one for the cursor and one for the batches.
+ * <p>
+ * Event ids are allocated before their transaction commits, so a checkpoint must not pass an id
+ * that may still appear. A replay stops before the first event younger than
+ * {@code app.replay.safety-lag-seconds}; the events after it are replayed by a later resume.
+ * <p>
+ * Replay reads only the card_events table. Once events have been archived, a replay that would
+ * start below the highest archived event id is refused, because it would silently skip the
+ * archived events: such projections cannot be rebuilt, only resumed from checkpoints past the archive.
+ */
+@Service
+@Slf4j
+public class CardEventReplayService implements CardEventReplayServiceInterface {
+
+    private static final Map<String, Class<?>> PAYLOAD_TYPES = Map.of(
+            "CARD_CREATED", CardCreatedPayload.class,
+            "CARD_STATUS_CHANGED", CardStatusChangedPayload.class,
+            "CARD_DELETED", CardDeletedPayload.class
+    );
+
+    private final CardEventReplayRepository replayRepository;
+    private final ArchiveServiceInterface archiveService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, CardProjection> projections;
+    private final TransactionTemplate cursorTransaction;
+    private final TransactionTemplate batchTransaction;
+    private final int parallelism;
+    private final int batchSize;
+    private final int fetchSize;
+    private final long safetyLagSeconds;
+    private final ExecutorService executor;
+
+    public CardEventReplayService(CardEventReplayRepository replayRepository,
+                                  ArchiveServiceInterface archiveService,
+                                  ObjectMapper objectMapper,
+                                  List<CardProjection> projections,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.replay.parallelism:4}") int parallelism,
+                                  @Value("${app.replay.batch-size:500}") int batchSize,
+                                  @Value("${app.replay.fetch-size:1000}") int fetchSize,
+                                  @Value("${app.replay.safety-lag-seconds:60}") long safetyLagSeconds) {
+        this.replayRepository = replayRepository;
+        this.archiveService = archiveService;
+        this.objectMapper = objectMapper;
+        this.projections = projections.stream()
+                .collect(Collectors.toMap(CardProjection::name, Function.identity()));
+        this.cursorTransaction = new TransactionTemplate(transactionManager);
+        this.cursorTransaction.setReadOnly(true);
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+        this.safetyLagSeconds = safetyLagSeconds;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                task -> new Thread(task, "card-event-replay-" + threads.incrementAndGet()));
+    }
+
+    /**
+     * Clears the projection and replays all events into it.
+     */
+    @Override
+    public ReplayReport rebuild(String projectionName) {
+        CardProjection projection = projection(projectionName);
+        List<ProjectionCheckpoint> ranges = splitRanges();
+        ensureNothingArchivedAfter(projectionName, ranges);
+        batchTransaction.executeWithoutResult(status -> {
+            projection.reset();
+            replayRepository.resetCheckpoints(projectionName, ranges);
+        });
+        log.info("Rebuilding projection {} over {} aggregate id ranges", projectionName, ranges.size());
+        return replay(projection, ranges);
+    }
+
+    /**
+     * Replays the events after the checkpoints of the projection: finishes an interrupted
+     * rebuild, or catches up with the events recorded since the last run. A projection that
+     * was never built is rebuilt.
+     */
+    @Override
+    public ReplayReport resume(String projectionName) {
+        CardProjection projection = projection(projectionName);
+        List<ProjectionCheckpoint> checkpoints = replayRepository.findCheckpoints(projectionName);
+        if (checkpoints.isEmpty()) {
+            return rebuild(projectionName);
+        }
+        ensureNothingArchivedAfter(projectionName, checkpoints);
+        return replay(projection, checkpoints);
+    }
+
+    /**
+     * Refuses to replay from a checkpoint below the highest archived event id. The check is conservative:
+     * it does not know which aggregate ids the archived events belong to.
+     */
+    private void ensureNothingArchivedAfter(String projectionName, List<ProjectionCheckpoint> checkpoints) {
+        long lastArchivedId = archiveService.lastArchivedCardEventId();
+        for (ProjectionCheckpoint checkpoint : checkpoints) {
+            if (checkpoint.lastEventId() < lastArchivedId) {
+                throw new ReplayNotPossibleException("Cannot replay " + projectionName
+                        + ": card events up to id " + lastArchivedId + " have been archived");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private ReplayReport replay(CardProjection projection, List<ProjectionCheckpoint> checkpoints) {
+        long start = System.nanoTime();
+        long highWaterId = replayRepository.findHighWaterId(LocalDateTime.now().minusSeconds(safetyLagSeconds));
+
+        List<Future<Long>> ranges = new ArrayList<>(checkpoints.size());
+        for (ProjectionCheckpoint checkpoint : checkpoints) {
+            ranges.add(executor.submit(() -> replayRange(projection, checkpoint, highWaterId)));
+        }
+
+        // Wait for every range before reporting a failure, so a resume never runs alongside a stale worker
+        long events = 0;
+        Throwable failure = null;
+        for (Future<Long> range : ranges) {
+            try {
+                events += range.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while replaying " + projection.name(), e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Replay of " + projection.name() + " failed", failure);
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        double eventsPerSecond = events * 1_000_000_000.0 / elapsedNanos;
+        ReplayReport report = new ReplayReport(projection.name(), checkpoints.size(), events,
+                elapsedNanos / 1_000_000, eventsPerSecond);
+        log.info("Replayed {} events into {} in {} ms ({} events/s)",
+                events, projection.name(), report.elapsedMs(), Math.round(eventsPerSecond));
+        return report;
+    }
+
+    private long replayRange(CardProjection projection, ProjectionCheckpoint checkpoint, long highWaterId) {
+        List<ReplayedCardEvent> batch = new ArrayList<>(batchSize);
+        long[] applied = {0};
+        cursorTransaction.executeWithoutResult(status -> replayRepository.stream(
+                checkpoint.rangeStart(), checkpoint.rangeEnd(), checkpoint.lastEventId(), highWaterId, fetchSize, event -> {
+                    batch.add(toReplayed(event));
+                    if (batch.size() == batchSize) {
+                        applied[0] += applyBatch(projection, checkpoint, batch);
+                    }
+                }));
+        if (!batch.isEmpty()) {
+            applied[0] += applyBatch(projection, checkpoint, batch);
+        }
+        return applied[0];
+    }
+
+    private int applyBatch(CardProjection projection, ProjectionCheckpoint checkpoint, List<ReplayedCardEvent> batch) {
+        long lastEventId = batch.get(batch.size() - 1).id();
+        batchTransaction.executeWithoutResult(status -> {
+            projection.apply(batch);
+            replayRepository.saveCheckpoint(projection.name(), checkpoint.rangeStart(), lastEventId);
+        });
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * Splits the aggregate ids into equally wide ranges. The outer ranges are open-ended, so
+     * cards created after the split are still covered when the projection is resumed.
+     */
+    private List<ProjectionCheckpoint> splitRanges() {
+        AggregateIdBounds bounds = replayRepository.findAggregateIdBounds().orElse(null);
+        if (bounds == null || parallelism == 1) {
+            return List.of(new ProjectionCheckpoint(Long.MIN_VALUE, Long.MAX_VALUE, 0));
+        }
+
+        long width = Math.max((bounds.max() - bounds.min()) / parallelism + 1, 1);
+        List<ProjectionCheckpoint> ranges = new ArrayList<>(parallelism);
+        long rangeStart = Long.MIN_VALUE;
+        for (int i = 1; i < parallelism; i++) {
+            long rangeEnd = bounds.min() + width * i;
+            if (rangeEnd > bounds.max()) {
+                break;
+            }
+            ranges.add(new ProjectionCheckpoint(rangeStart, rangeEnd, 0));
+            rangeStart = rangeEnd;
+        }
+        ranges.add(new ProjectionCheckpoint(rangeStart, Long.MAX_VALUE, 0));
+        return ranges;
+    }
+
+    private ReplayedCardEvent toReplayed(CardEvent event) {
+        Class<?> payloadType = PAYLOAD_TYPES.get(event.getEventType());
+        Object payload = null;
+        if (payloadType != null) {
+            try {
+                payload = objectMapper.readValue(event.getEventData(), payloadType);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Corrupt payload of card event " + event.getId(), e);
+            }
+        }
+        return new ReplayedCardEvent(event.getId(), event.getAggregateId(), event.getEventType(),
+                event.getUserId(), event.getTimestamp(), payload);
+    }
+
+    private CardProjection projection(String name) {
+        CardProjection projection = projections.get(name);
+        if (projection == null) {
+            throw new ResourceNotFoundException("Projection not found: " + name);
+        }
+        return projection;
+    }
+}
@@ -1,81 +1,232 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.event.CardCreatedPayload;
+import com.example.bankcards.dto.event.CardDeletedPayload;
+import com.example.bankcards.dto.event.CardEventResponse;
+import com.example.bankcards.dto.event.CardStatusChange;
+import com.example.bankcards.dto.event.CardStatusChangedPayload;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.repository.CardEventBatchRepository;
 import com.example.bankcards.repository.CardEventRepository;
 import com.example.bankcards.service.contracts.CardEventServiceInterface;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CardEventService implements CardEventServiceInterface {
 
+    /**
+     * SYNC saves the event in the caller's transaction.
+     * ASYNC hands the event to {@link CardEventWriter} once the caller's transaction commits. A
+     * crash before the writer inserts it loses the event, so ASYNC cannot be combined with the
+     * outbox relay, which relies on card_events being written with the change they record.
+     */
+    public enum WriteMode {
+        SYNC, ASYNC
+    }
+
     private final CardEventRepository eventRepository;
+    private final CardEventBatchRepository eventBatchRepository;
     private final ObjectMapper objectMapper;
+    // Only present in ASYNC mode
+    private final CardEventWriter eventWriter;
+    // ObjectWriter is immutable and thread-safe; one per payload type keeps the serializer lookup out of each call
+    private final ObjectWriter createdWriter;
+    private final ObjectWriter statusChangedWriter;
+    private final ObjectWriter deletedWriter;
+
+    private final WriteMode writeMode;
+
+    public CardEventService(CardEventRepository eventRepository, CardEventBatchRepository eventBatchRepository,
+                            ObjectMapper objectMapper, ObjectProvider<CardEventWriter> eventWriter,
+                            @Value("${app.card-events.mode:SYNC}") WriteMode writeMode,
+                            @Value("${app.outbox.relay.enabled:false}") boolean relayEnabled) {
+        if (writeMode == WriteMode.ASYNC && relayEnabled) {
+            throw new IllegalStateException("app.card-events.mode=ASYNC can lose events on a crash and "
+                    + "cannot be combined with app.outbox.relay.enabled=true");
+        }
+        this.eventRepository = eventRepository;
+        this.eventBatchRepository = eventBatchRepository;
+        this.objectMapper = objectMapper;
+        this.writeMode = writeMode;
+        this.eventWriter = writeMode == WriteMode.ASYNC ? eventWriter.getObject() : null;
+        this.createdWriter = objectMapper.writerFor(CardCreatedPayload.class);
+        this.statusChangedWriter = objectMapper.writerFor(CardStatusChangedPayload.class);
+        this.deletedWriter = objectMapper.writerFor(CardDeletedPayload.class);
+    }
 
     @Transactional
     @Override
     public void recordCardCreatedEvent(Card card, Long userId) {
-        Map<String, Object> data = new HashMap<>();
-        data.put("cardId", card.getId());
-        data.put("cardHolder", card.getCardHolder());
-        data.put("status", card.getStatus().name());
-        data.put("balance", card.getBalance());
-        data.put("userId", card.getUser().getId());
-
-        saveEvent(card.getId(), "CARD_CREATED", data, userId);
+        CardCreatedPayload payload = new CardCreatedPayload(
+            card.getId(),
+            card.getCardHolder(),
+            card.getStatus().name(),
+            card.getBalance(),
+            card.getUser().getId()
+        );
+
+        saveEvent(card.getId(), "CARD_CREATED", createdWriter, payload, userId);
+    }
+
+    /**
+     * Records one CARD_CREATED event per card, attributed to the card's owner. In SYNC mode they
+     * are inserted with one JDBC batch in the caller's transaction.
+     */
+    @Transactional
+    @Override
+    public void recordCardCreatedEvents(List<Card> cards) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CardEvent> events = new ArrayList<>(cards.size());
+        for (Card card : cards) {
+            CardCreatedPayload payload = new CardCreatedPayload(
+                card.getId(),
+                card.getCardHolder(),
+                card.getStatus().name(),
+                card.getBalance(),
+                card.getUser().getId()
+            );
+            events.add(newEvent(card.getId(), "CARD_CREATED", serialize(createdWriter, payload),
+                card.getUser().getId(), now));
+        }
+        saveEvents(events);
     }
 
     @Transactional
     @Override
     public void recordCardStatusChangedEvent(Long cardId, String oldStatus, String newStatus, Long userId, String reason) {
-        Map<String, Object> data = new HashMap<>();
-        data.put("cardId", cardId);
-        data.put("oldStatus", oldStatus);
-        data.put("newStatus", newStatus);
-        data.put("reason", reason);
+        CardStatusChangedPayload payload = new CardStatusChangedPayload(cardId, oldStatus, newStatus, reason);
 
-        saveEvent(cardId, "CARD_STATUS_CHANGED", data, userId);
+        saveEvent(cardId, "CARD_STATUS_CHANGED", statusChangedWriter, payload, userId);
+    }
+
+    /**
+     * Records one CARD_STATUS_CHANGED event per change. In SYNC mode they are inserted with
+     * one JDBC batch in the caller's transaction.
+     */
+    @Transactional
+    @Override
+    public void recordCardStatusChangedEvents(List<CardStatusChange> changes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CardEvent> events = new ArrayList<>(changes.size());
+        for (CardStatusChange change : changes) {
+            CardStatusChangedPayload payload = new CardStatusChangedPayload(
+                change.cardId(), change.oldStatus(), change.newStatus(), change.reason());
+            events.add(newEvent(change.cardId(), "CARD_STATUS_CHANGED", serialize(statusChangedWriter, payload),
+                change.userId(), now));
+        }
+        saveEvents(events);
     }
 
     @Transactional
     @Override
     public void recordCardDeletedEvent(Long cardId, Long userId) {
-        Map<String, Object> data = new HashMap<>();
-        data.put("cardId", cardId);
-        data.put("deletedAt", LocalDateTime.now());
+        CardDeletedPayload payload = new CardDeletedPayload(cardId, LocalDateTime.now());
 
-        saveEvent(cardId, "CARD_DELETED", data, userId);
+        saveEvent(cardId, "CARD_DELETED", deletedWriter, payload, userId);
     }
 
-    private void saveEvent(Long aggregateId, String eventType, Map<String, Object> data,
-                           Long userId) {
-        try {
-            String eventData = objectMapper.writeValueAsString(data);
+    /**
+     * Pages events newest first. Every non-null payload field must match; the match is a JSONB
+     * containment test served by the GIN index on event_data.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public Page<CardEventResponse> findEvents(String eventType, Long cardId, Map<String, String> payloadFields,
+                                              Pageable pageable) {
+        ObjectNode filter = objectMapper.createObjectNode();
+        payloadFields.forEach((field, value) -> {
+            if (value != null) {
+                filter.put(field, value);
+            }
+        });
 
-            CardEvent event = new CardEvent();
-            event.setAggregateId(aggregateId);
-            event.setEventType(eventType);
-            event.setEventData(eventData);
-            event.setUserId(userId);
-            event.setTimestamp(LocalDateTime.now());
+        return eventRepository.findByPayload(eventType, cardId, filter.toString(), pageable)
+            .map(event -> new CardEventResponse(
+                event.getId(),
+                event.getAggregateId(),
+                event.getEventType(),
+                event.getEventData(),
+                event.getUserId(),
+                event.getTimestamp()
+            ));
+    }
+
+    private void saveEvent(Long aggregateId, String eventType, ObjectWriter writer, Object payload,
+                           Long userId) {
+        CardEvent event = newEvent(aggregateId, eventType, serialize(writer, payload), userId, LocalDateTime.now());
 
+        if (writeMode == WriteMode.ASYNC) {
+            enqueueAfterCommit(event);
+        } else {
             eventRepository.save(event);
-            log.info("Event recorded: {} for aggregate: {}", eventType, aggregateId);
+        }
+        log.info("Event recorded: {} for aggregate: {}", eventType, aggregateId);
+    }
 
+    private void saveEvents(List<CardEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (writeMode == WriteMode.ASYNC) {
+            events.forEach(this::enqueueAfterCommit);
+        } else {
+            eventBatchRepository.insertAll(events);
+        }
+        log.info("Events recorded: {} x {}", events.size(), events.get(0).getEventType());
+    }
+
+    private String serialize(ObjectWriter writer, Object payload) {
+        try {
+            return writer.writeValueAsString(payload);
         } catch (JsonProcessingException e) {
             log.error("Error serializing event data", e);
             throw new RuntimeException("Error recording event", e);
         }
     }
-}
\ No newline at end of file
+
+    private static CardEvent newEvent(Long aggregateId, String eventType, String eventData, Long userId,
+                                      LocalDateTime timestamp) {
+        CardEvent event = new CardEvent();
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setEventData(eventData);
+        event.setUserId(userId);
+        event.setTimestamp(timestamp);
+        return event;
+    }
+
+    /**
+     * Events of a rolled back transaction are dropped together with the change they describe.
+     */
+    private void enqueueAfterCommit(CardEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventWriter.enqueue(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventWriter.enqueue(event);
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.repository.CardEventBatchRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes card events in the background. Events wait in a bounded queue and one writer thread
+ * inserts them in JDBC batches of up to {@code batchSize}.
+ * <p>
+ * When the queue is full the caller waits up to {@code offerTimeoutMs}; if there is still no room
+ * the caller inserts its event itself, which slows producers down to the database's pace instead
+ * of dropping events. On shutdown the writer drains the queue before it stops. The bean, its
+ * thread and its meters only exist with {@code app.card-events.mode=ASYNC}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.card-events.mode", havingValue = "ASYNC")
+@Slf4j
+public class CardEventWriter {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final CardEventBatchRepository batchRepository;
+    private final BlockingQueue<CardEvent> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final long drainTimeoutMs;
+    private final Timer flushTimer;
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+
+    public CardEventWriter(CardEventBatchRepository batchRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.card-events.queue-capacity:10000}") int queueCapacity,
+                           @Value("${app.card-events.batch-size:500}") int batchSize,
+                           @Value("${app.card-events.offer-timeout-ms:1000}") long offerTimeoutMs,
+                           @Value("${app.card-events.drain-timeout-ms:10000}") long drainTimeoutMs) {
+        this.batchRepository = batchRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.drainTimeoutMs = drainTimeoutMs;
+
+        Gauge.builder("card.events.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("card.events.flush")
+                .description("Time to insert one batch of card events")
+                .register(meterRegistry);
+
+        this.writerThread = new Thread(this::run, "card-event-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues the event for the writer thread. Blocks while the queue is full.
+     */
+    public void enqueue(CardEvent event) {
+        try {
+            if (running && queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Card event queue is full or stopped, writing {} synchronously", event.getEventType());
+        flush(List.of(event));
+    }
+
+    private void run() {
+        List<CardEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CardEvent first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                // Stop waiting for new events; the loop still drains what is queued
+                running = false;
+            } catch (Exception ex) {
+                log.error("Card event writer failed", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<CardEvent> batch) {
+        try {
+            flushTimer.record(() -> batchRepository.insertAll(batch));
+            log.debug("Wrote {} card events", batch.size());
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                log.error("Failed to write card event {} for aggregate {}",
+                        batch.get(0).getEventType(), batch.get(0).getAggregateId(), ex);
+                return;
+            }
+            // Retry one by one so that a single bad event does not lose the whole batch
+            log.warn("Batch of {} card events failed, retrying individually: {}", batch.size(), ex.getMessage());
+            for (CardEvent event : batch) {
+                flush(List.of(event));
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(drainTimeoutMs);
+        if (!queue.isEmpty()) {
+            log.error("Card event writer stopped with {} events still queued", queue.size());
+        }
+    }
+}
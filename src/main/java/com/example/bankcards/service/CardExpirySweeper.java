@@ -0,0 +1,77 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.event.CardStatusChange;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.repository.CardExpiryRepository;
+import com.example.bankcards.repository.CardExpiryRepository.ExpiredCard;
+import com.example.bankcards.service.contracts.CardEventServiceInterface;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Marks active cards past their expiry date as EXPIRED, so that status queries stop returning
+ * them. Every batch is one UPDATE plus one batch of CARD_STATUS_CHANGED events in a single
+ * transaction. Batches skip locked rows, so sweepers on several nodes split the work instead of
+ * waiting for each other; cards skipped because a transfer held them are expired by the next run.
+ */
+@Service
+@Slf4j
+public class CardExpirySweeper {
+
+    private static final String REASON = "Card expired";
+
+    private final CardExpiryRepository expiryRepository;
+    private final CardEventServiceInterface eventService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public CardExpirySweeper(CardExpiryRepository expiryRepository,
+                             CardEventServiceInterface eventService,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.card-expiry.batch-size:1000}") int batchSize) {
+        this.expiryRepository = expiryRepository;
+        this.eventService = eventService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.card-expiry.cron:0 1 0 * * *}")
+    public void sweep() {
+        expireCards(LocalDate.now());
+    }
+
+    /**
+     * Expires the active cards whose expiry date is before {@code today}.
+     *
+     * @return the number of cards expired by this call
+     */
+    public int expireCards(LocalDate today) {
+        int expired = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> expireBatch(today));
+            expired += batch;
+        } while (batch == batchSize);
+
+        if (expired > 0) {
+            log.info("Expired {} cards", expired);
+        }
+        return expired;
+    }
+
+    private int expireBatch(LocalDate today) {
+        List<ExpiredCard> cards = expiryRepository.expireBatch(today, batchSize, LocalDateTime.now());
+        eventService.recordCardStatusChangedEvents(cards.stream()
+                .map(card -> new CardStatusChange(card.cardId(), Card.CardStatus.ACTIVE.name(),
+                        Card.CardStatus.EXPIRED.name(), card.userId(), REASON))
+                .toList());
+        return cards.size();
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardCreateRequest;
+import com.example.bankcards.dto.card.CardImportResponse;
+import com.example.bankcards.dto.card.CardImportRowError;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.InvalidCardException;
+import com.example.bankcards.repository.CardBatchRepository;
+import com.example.bankcards.repository.LedgerEntryBatchRepository;
+import com.example.bankcards.service.contracts.CardEventServiceInterface;
+import com.example.bankcards.service.contracts.CardImportServiceInterface;
+import com.example.bankcards.util.BlindIndexUtil;
+import com.example.bankcards.util.CardMaskingUtil;
+import com.example.bankcards.util.EncryptionUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Imports cards from CSV with the columns of {@link #HEADER}. The file is read in chunks of
+ * {@code chunkSize} rows, so memory use does not depend on its size. The rows of a chunk are
+ * validated and encrypted on a worker pool, checked against existing card numbers and users with
+ * one query each, and inserted together with their opening ledger entries and CARD_CREATED
+ * events as JDBC batches in one transaction per chunk. Invalid rows are reported and skipped.
+ */
+@Service
+@Slf4j
+public class CardImportService implements CardImportServiceInterface {
+
+    static final String HEADER = "card_number,card_holder,expiry_date,cvv,user_id,initial_balance";
+
+    private static final int COLUMNS = 6;
+
+    private final CardBatchRepository cardBatchRepository;
+    private final LedgerEntryBatchRepository ledgerRepository;
+    private final CardEventServiceInterface eventService;
+    private final CardMaskingUtil maskingUtil;
+    private final EncryptionUtil encryptionUtil;
+    private final BlindIndexUtil blindIndexUtil;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int maxReportedErrors;
+    private final ExecutorService executor;
+
+    public CardImportService(CardBatchRepository cardBatchRepository,
+                             LedgerEntryBatchRepository ledgerRepository,
+                             CardEventServiceInterface eventService,
+                             CardMaskingUtil maskingUtil,
+                             EncryptionUtil encryptionUtil,
+                             BlindIndexUtil blindIndexUtil,
+                             Validator validator,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.card-import.chunk-size:1000}") int chunkSize,
+                             @Value("${app.card-import.parallelism:4}") int parallelism,
+                             @Value("${app.card-import.max-reported-errors:500}") int maxReportedErrors) {
+        this.cardBatchRepository = cardBatchRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.eventService = eventService;
+        this.maskingUtil = maskingUtil;
+        this.encryptionUtil = encryptionUtil;
+        this.blindIndexUtil = blindIndexUtil;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.maxReportedErrors = maxReportedErrors;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                task -> new Thread(task, "card-import-" + threads.incrementAndGet()));
+    }
+
+    @Override
+    public CardImportResponse importCards(InputStream csv) {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null || !HEADER.equalsIgnoreCase(header.strip().replace("\uFEFF", ""))) {
+                throw new InvalidCardException("CSV header must be: " + HEADER);
+            }
+
+            long lineNumber = 1;
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Row(lineNumber, line));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, progress);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading card import", e);
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        double rowsPerSecond = progress.rows * 1_000_000_000.0 / elapsedNanos;
+        log.info("Imported {} of {} cards in {} ms ({} rows/s), {} rejected",
+                progress.imported, progress.rows, elapsedNanos / 1_000_000, Math.round(rowsPerSecond), progress.rejected);
+        return new CardImportResponse(progress.rows, progress.imported, progress.rejected, progress.errors,
+                elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void importChunk(List<Row> rows, Progress progress) {
+        progress.rows += rows.size();
+        List<ParsedRow> parsed = parseAll(rows);
+
+        // Duplicates within the file are caught here, against earlier chunks by the lookup below
+        Set<String> seen = new HashSet<>();
+        List<ParsedRow> valid = new ArrayList<>(parsed.size());
+        for (ParsedRow row : parsed) {
+            if (row.error() != null) {
+                progress.reject(row.line(), row.error());
+            } else if (!seen.add(row.card().getCardNumberHash())) {
+                progress.reject(row.line(), "Duplicate card number in file");
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingNumbers = cardBatchRepository.findExistingHashes(
+                valid.stream().map(row -> row.card().getCardNumberHash()).toList());
+        Set<Long> existingUsers = cardBatchRepository.findExistingUserIds(
+                valid.stream().map(row -> row.card().getUser().getId()).collect(Collectors.toSet()));
+        List<ParsedRow> insertable = new ArrayList<>(valid.size());
+        for (ParsedRow row : valid) {
+            if (existingNumbers.contains(row.card().getCardNumberHash())) {
+                progress.reject(row.line(), "Card number already exists");
+            } else if (!existingUsers.contains(row.card().getUser().getId())) {
+                progress.reject(row.line(), "User not found with id: " + row.card().getUser().getId());
+            } else {
+                insertable.add(row);
+            }
+        }
+        if (insertable.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(insertable));
+        } catch (DataAccessException e) {
+            log.error("Card import chunk starting at line {} failed", rows.get(0).line(), e);
+            insertable.forEach(row -> progress.reject(row.line(), "Could not be stored"));
+            return;
+        }
+        for (ParsedRow row : insertable) {
+            // Only inserted cards got an id; the others were inserted concurrently by someone else
+            if (row.card().getId() != null) {
+                progress.imported++;
+            } else {
+                progress.reject(row.line(), "Card number already exists");
+            }
+        }
+    }
+
+    private void insert(List<ParsedRow> rows) {
+        List<Card> inserted = cardBatchRepository.insertAll(rows.stream().map(ParsedRow::card).toList());
+        List<LedgerEntry> openings = new ArrayList<>(inserted.size());
+        for (ParsedRow row : rows) {
+            if (row.card().getId() != null) {
+                row.opening().setCardId(row.card().getId());
+                openings.add(row.opening());
+            }
+        }
+        ledgerRepository.insertAll(openings);
+        eventService.recordCardCreatedEvents(inserted);
+    }
+
+    /**
+     * Parses, validates and encrypts the rows in {@code parallelism} slices, keeping their order.
+     */
+    private List<ParsedRow> parseAll(List<Row> rows) {
+        int sliceSize = Math.max((rows.size() + parallelism - 1) / parallelism, 1);
+        List<Callable<List<ParsedRow>>> slices = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += sliceSize) {
+            List<Row> slice = rows.subList(from, Math.min(from + sliceSize, rows.size()));
+            slices.add(() -> slice.stream().map(this::parse).toList());
+        }
+
+        List<ParsedRow> parsed = new ArrayList<>(rows.size());
+        try {
+            for (Future<List<ParsedRow>> slice : executor.invokeAll(slices)) {
+                parsed.addAll(slice.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing cards", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Card import failed", e.getCause());
+        }
+        return parsed;
+    }
+
+    private ParsedRow parse(Row row) {
+        List<String> fields = splitCsv(row.text());
+        if (fields.size() != COLUMNS) {
+            return ParsedRow.rejected(row.line(), "Expected " + COLUMNS + " columns but found " + fields.size());
+        }
+
+        CardCreateRequest request = new CardCreateRequest();
+        try {
+            request.setCardNumber(fields.get(0).strip());
+            request.setCardHolder(fields.get(1).strip());
+            request.setExpiryDate(LocalDate.parse(fields.get(2).strip()));
+            request.setCvv(fields.get(3).strip());
+            request.setUserId(Long.parseLong(fields.get(4).strip()));
+            String balance = fields.get(5).strip();
+            request.setInitialBalance(balance.isEmpty() ? BigDecimal.ZERO : new BigDecimal(balance));
+        } catch (DateTimeParseException e) {
+            return ParsedRow.rejected(row.line(), "Expiry date must be yyyy-MM-dd");
+        } catch (NumberFormatException e) {
+            return ParsedRow.rejected(row.line(), "User ID and initial balance must be numbers");
+        }
+
+        Set<ConstraintViolation<CardCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return ParsedRow.rejected(row.line(), violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        if (!maskingUtil.isValidCardNumber(request.getCardNumber())) {
+            return ParsedRow.rejected(row.line(), "Invalid card number");
+        }
+        if (request.getExpiryDate().isBefore(LocalDate.now())) {
+            return ParsedRow.rejected(row.line(), "Card expiry date is in the past");
+        }
+
+        User owner = new User();
+        owner.setId(request.getUserId());
+
+        Card card = new Card();
+        card.setCardNumberEncrypted(encryptionUtil.encrypt(request.getCardNumber()));
+        card.setCardNumberHash(blindIndexUtil.hash(request.getCardNumber()));
+        card.setCardNumberLastFour(request.getCardNumber().substring(request.getCardNumber().length() - 4));
+        card.setCardHolder(request.getCardHolder());
+        card.setExpiryDate(request.getExpiryDate());
+        card.setCvvEncrypted(encryptionUtil.encrypt(request.getCvv()));
+        card.setStatus(Card.CardStatus.ACTIVE);
+        card.setUser(owner);
+        LedgerEntry opening = card.post(request.getInitialBalance(), LocalDateTime.now());
+        return new ParsedRow(row.line(), card, opening, null);
+    }
+
+    /**
+     * Splits one CSV line. Fields may be quoted, with {@code ""} for a quote inside a quoted
+     * field; line breaks inside fields are not supported.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Row(long line, String text) {
+    }
+
+    private record ParsedRow(long line, Card card, LedgerEntry opening, String error) {
+
+        static ParsedRow rejected(long line, String error) {
+            return new ParsedRow(line, null, null, error);
+        }
+    }
+
+    private class Progress {
+        private final List<CardImportRowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long rejected;
+
+        void reject(long line, String error) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new CardImportRowError(line, error));
+            }
+        }
+    }
+}
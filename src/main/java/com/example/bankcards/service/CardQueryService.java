@@ -1,10 +1,12 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.SliceResponse;
 import com.example.bankcards.dto.card.CardResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.service.contracts.CardQueryServiceInterface;
+import com.example.bankcards.service.contracts.RowCountServiceInterface;
 import com.example.bankcards.util.CardMaskingUtil;
 import com.example.bankcards.util.EncryptionUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -18,19 +20,37 @@ import org.springframework.data.domain.Pageable;
 @Slf4j
 public class CardQueryService extends AbstractCardService implements CardQueryServiceInterface {
 
-    public CardQueryService(CardRepository cardRepository, EncryptionUtil encryptionUtil, CardMaskingUtil maskingUtil) {
+    private final RowCountServiceInterface rowCountService;
+
+    public CardQueryService(CardRepository cardRepository, EncryptionUtil encryptionUtil, CardMaskingUtil maskingUtil,
+                            RowCountServiceInterface rowCountService) {
         super(cardRepository, encryptionUtil, maskingUtil);
+        this.rowCountService = rowCountService;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<CardResponse> getAllCards(Pageable pageable) {
-        return cardRepository.findAll(pageable).map(this::mapToResponse);
+        return cardRepository.findByDeletedAtIsNull(pageable).map(this::mapToResponse);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<CardResponse> getUserCards(Long userId, Pageable pageable) {
-        return cardRepository.findByUserId(userId, pageable).map(this::mapToResponse);
+        return cardRepository.findByUserIdAndDeletedAtIsNull(userId, pageable).map(this::mapToResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponse<CardResponse> getAllCardsSlice(Pageable pageable) {
+        return new SliceResponse<>(cardRepository.findSliceByDeletedAtIsNull(pageable).map(this::mapToResponse),
+                rowCountService.estimateCards());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponse<CardResponse> getUserCardsSlice(Long userId, Pageable pageable) {
+        return new SliceResponse<>(cardRepository.findSliceByUserIdAndDeletedAtIsNull(userId, pageable).map(this::mapToResponse),
+                rowCountService.countUserCards(userId));
     }
 }
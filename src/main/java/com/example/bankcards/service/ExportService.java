@@ -0,0 +1,253 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.ExportFormat;
+import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.dto.transfer.TransferResponse;
+import com.example.bankcards.repository.ExportRepository;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.repository.projection.TransferView;
+import com.example.bankcards.service.contracts.ExportServiceInterface;
+import com.example.bankcards.util.CardMaskingUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams every card or transfer to an output stream as NDJSON or CSV. Rows are read through a
+ * forward-only cursor, masked and written one at a time, so memory use does not grow with the
+ * size of the export.
+ */
+@Service
+@Slf4j
+public class ExportService implements ExportServiceInterface {
+
+    static final String CARDS_HEADER =
+            "id,card_number_masked,card_holder,expiry_date,status,balance,user_id,user_name,created_at,updated_at";
+
+    static final String TRANSFERS_HEADER =
+            "id,from_card_id,from_card_number_masked,to_card_id,to_card_number_masked,amount,status,description," +
+            "user_id,created_at";
+
+    // Same format as the @JsonFormat of the response DTOs
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final ExportRepository exportRepository;
+    private final CardMaskingUtil maskingUtil;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate cursorTransaction;
+    private final int fetchSize;
+
+    public ExportService(ExportRepository exportRepository,
+                         CardMaskingUtil maskingUtil,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.exportRepository = exportRepository;
+        this.maskingUtil = maskingUtil;
+        this.objectMapper = objectMapper;
+        this.cursorTransaction = new TransactionTemplate(transactionManager);
+        this.cursorTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void exportCards(ExportFormat format, OutputStream out) {
+        long started = System.nanoTime();
+        long rows = export(format, out, CardResponse.class, CARDS_HEADER,
+                sink -> exportRepository.streamCards(fetchSize, card -> sink.accept(mapToResponse(card))),
+                card -> new Object[]{card.getId(), card.getCardNumberMasked(), card.getCardHolder(),
+                        card.getExpiryDate(), card.getStatus(), card.getBalance(), card.getUserId(),
+                        card.getUserName(), card.getCreatedAt(), card.getUpdatedAt()});
+        log.info("Exported {} cards as {} in {} ms", rows, format, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public void exportTransfers(ExportFormat format, OutputStream out) {
+        long started = System.nanoTime();
+        long rows = export(format, out, TransferResponse.class, TRANSFERS_HEADER,
+                sink -> exportRepository.streamTransfers(fetchSize, transfer -> sink.accept(mapToResponse(transfer))),
+                transfer -> new Object[]{transfer.getId(), transfer.getFromCardId(),
+                        transfer.getFromCardNumberMasked(), transfer.getToCardId(), transfer.getToCardNumberMasked(),
+                        transfer.getAmount(), transfer.getStatus(), transfer.getDescription(), transfer.getUserId(),
+                        transfer.getCreatedAt()});
+        log.info("Exported {} transfers as {} in {} ms", rows, format, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private <T> long export(ExportFormat format, OutputStream out, Class<T> type, String csvHeader,
+                            Consumer<Consumer<T>> reader, Function<T, Object[]> csvColumns) {
+        try {
+            RowWriter<T> writer = format == ExportFormat.CSV
+                    ? new CsvRowWriter<>(out, csvHeader, csvColumns)
+                    : new NdjsonRowWriter<>(out, objectMapper, type);
+            long[] rows = {0};
+            cursorTransaction.executeWithoutResult(status -> reader.accept(row -> {
+                try {
+                    writer.write(row);
+                    rows[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+            writer.finish();
+            return rows[0];
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private CardResponse mapToResponse(CardView card) {
+        return new CardResponse(
+                card.id(),
+                maskingUtil.maskCardNumber(card.cardNumberLastFour()),
+                card.cardHolder(),
+                card.expiryDate(),
+                card.status().name(),
+                card.balance(),
+                card.userId(),
+                card.username(),
+                card.createdAt(),
+                card.updatedAt()
+        );
+    }
+
+    private TransferResponse mapToResponse(TransferView transfer) {
+        return new TransferResponse(
+                transfer.id(),
+                transfer.fromCardId(),
+                maskingUtil.maskCardNumber(transfer.fromCardLastFour()),
+                transfer.toCardId(),
+                maskingUtil.maskCardNumber(transfer.toCardLastFour()),
+                transfer.amount(),
+                transfer.status().name(),
+                transfer.description(),
+                transfer.userId(),
+                transfer.createdAt()
+        );
+    }
+
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+
+        /**
+         * Flushes buffered rows without closing the underlying stream, which belongs to the caller.
+         */
+        void finish() throws IOException;
+    }
+
+    /**
+     * One JSON object per line, serialized like the paged API responses.
+     */
+    private static final class NdjsonRowWriter<T> implements RowWriter<T> {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+
+        NdjsonRowWriter(OutputStream out, ObjectMapper objectMapper, Class<T> type) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+            // The generator buffers and flushes by itself; a flush per row would send tiny chunks
+            this.writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            writer.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV: a header row, then one line per row with fields quoted when needed. Text
+     * starting like a spreadsheet formula gets a leading {@code '} so that it is shown, not evaluated.
+     */
+    private static final class CsvRowWriter<T> implements RowWriter<T> {
+
+        private final Writer writer;
+        private final Function<T, Object[]> columns;
+        private final StringBuilder line = new StringBuilder(256);
+
+        CsvRowWriter(OutputStream out, String header, Function<T, Object[]> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.columns = columns;
+            writer.write(header);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            line.setLength(0);
+            Object[] values = columns.apply(row);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendField(values[i]);
+            }
+            line.append('\n');
+            writer.append(line);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void appendField(Object value) {
+            if (value == null) {
+                return;
+            }
+            String text = value instanceof LocalDateTime dateTime ? DATE_TIME.format(dateTime)
+                    : value instanceof BigDecimal decimal ? decimal.toPlainString()
+                    : value.toString();
+            if (value instanceof String && isFormula(text)) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                line.append(text);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        private static boolean isFormula(String text) {
+            if (text.isEmpty()) {
+                return false;
+            }
+            char first = text.charAt(0);
+            return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.service.contracts.EventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed events to a newline-delimited JSON file, one event per line. Meant for local
+ * runs and tests where no broker is available.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+public class FileEventSink implements EventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileEventSink(ObjectMapper objectMapper,
+                         @Value("${app.outbox.file-path:card-events.ndjson}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public synchronized void publish(List<CardEvent> events) {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (CardEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(toJson(event)));
+                writer.write('\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Error writing card events to " + path, ex);
+        }
+    }
+
+    private ObjectNode toJson(CardEvent event) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", event.getId());
+        node.put("aggregateId", event.getAggregateId());
+        node.put("eventType", event.getEventType());
+        node.put("userId", event.getUserId());
+        node.put("timestamp", event.getTimestamp().toString());
+        node.set("data", objectMapper.readTree(event.getEventData()));
+        return node;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.bankcards.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the monthly partitions of transfers and card_events in shape: partitions are created
+ * {@code monthsAhead} months in advance, and partitions entirely older than a table's retention
+ * are detached (and dropped when {@code dropDetached} is set) once {@link ArchiveService} has
+ * moved all of their rows to the archive. A retention of 0 keeps everything.
+ * Partitions are named {@code <table>_pYYYYMM}.
+ */
+@Service
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ?";
+
+    /** Partition key column of each partitioned table. */
+    private static final Map<String, String> PARTITION_KEYS = Map.of("transfers", "created_at", "card_events", "timestamp");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Integer> retentionMonths;
+    private final int monthsAhead;
+    private final boolean dropDetached;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${app.partitions.transfers.retention-months:0}") int transfersRetention,
+                                       @Value("${app.partitions.card-events.retention-months:0}") int cardEventsRetention,
+                                       @Value("${app.archive.transfers.retention-days:0}") int transfersArchiveDays,
+                                       @Value("${app.archive.card-events.retention-days:0}") int cardEventsArchiveDays,
+                                       @Value("${app.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${app.partitions.drop-detached:false}") boolean dropDetached) {
+        checkRetention("transfers", transfersRetention, transfersArchiveDays);
+        checkRetention("card-events", cardEventsRetention, cardEventsArchiveDays);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionMonths = Map.of("transfers", transfersRetention, "card_events", cardEventsRetention);
+        this.monthsAhead = monthsAhead;
+        this.dropDetached = dropDetached;
+    }
+
+    /**
+     * A partition is detached once it ended at least {@code months - 1} whole months ago, which
+     * can be as little as {@code 28 * (months - 1)} days. Its rows must be archived by then, so
+     * the archive retention has to be enabled and no longer than that.
+     */
+    static void checkRetention(String table, int retentionMonths, int archiveRetentionDays) {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        if (archiveRetentionDays <= 0 || archiveRetentionDays > 28 * (retentionMonths - 1)) {
+            throw new IllegalStateException("app.partitions." + table + ".retention-months=" + retentionMonths
+                    + " detaches partitions before app.archive." + table + ".retention-days="
+                    + archiveRetentionDays + " archives their rows; it needs an archive retention between 1 and "
+                    + 28 * (retentionMonths - 1) + " days");
+        }
+    }
+
+    /**
+     * Runs on startup and on schedule. A failing table is logged and left for the next run, so
+     * it neither blocks the other table nor aborts startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.partitions.cron:0 15 0 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        retentionMonths.forEach((table, retention) -> {
+            try {
+                createPartitions(table, current, current.plusMonths(monthsAhead));
+                if (retention > 0) {
+                    detachPartitionsBefore(table, current.minusMonths(retention - 1), dropDetached);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Partition maintenance of {} failed", table, ex);
+            }
+        });
+    }
+
+    /**
+     * Creates the missing monthly partitions from {@code from} through {@code until}. Rows of a
+     * month that already landed in the default partition are moved into the new partition.
+     *
+     * @return the names of the partitions created
+     */
+    public List<String> createPartitions(String table, YearMonth from, YearMonth until) {
+        List<String> existing = partitionsOf(table);
+        List<String> created = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(until); month = month.plusMonths(1)) {
+            String partition = partitionName(table, month);
+            if (existing.contains(partition)) {
+                continue;
+            }
+            createPartition(table, partition, month.atDay(1), month.plusMonths(1).atDay(1));
+            created.add(partition);
+        }
+        if (!created.isEmpty()) {
+            log.info("Created partitions {}", created);
+        }
+        return created;
+    }
+
+    /**
+     * PostgreSQL refuses to create a partition while the default partition holds rows of its
+     * range, so the default partition is detached for the move and attached again afterwards.
+     * Detaching locks the table until the transaction commits, so no row can miss both.
+     */
+    private void createPartition(String table, String partition, LocalDate start, LocalDate end) {
+        String key = PARTITION_KEYS.get(table);
+        String defaultPartition = table + "_default";
+        transactionTemplate.executeWithoutResult(status -> {
+            boolean misplaced = Boolean.TRUE.equals(jdbcTemplate.queryForObject(String.format(
+                    "SELECT EXISTS (SELECT 1 FROM %s WHERE %s >= ? AND %s < ?)", defaultPartition, key, key),
+                    Boolean.class, start, end));
+            if (misplaced) {
+                jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", table, defaultPartition));
+            }
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partition, table, start, end));
+            if (misplaced) {
+                int moved = jdbcTemplate.update(String.format(
+                        "WITH moved AS (DELETE FROM %s WHERE %s >= ? AND %s < ? RETURNING *) " +
+                        "INSERT INTO %s SELECT * FROM moved", defaultPartition, key, key, partition), start, end);
+                jdbcTemplate.execute(String.format("ALTER TABLE %s ATTACH PARTITION %s DEFAULT", table, defaultPartition));
+                log.info("Moved {} rows of {} from {} into {}", moved, table, defaultPartition, partition);
+            }
+        });
+    }
+
+    /**
+     * Detaches the monthly partitions that end before {@code firstKept} starts and no longer hold
+     * rows, because {@link ArchiveService} has archived and deleted them; a partition that still
+     * has rows is kept until the archive catches up. The default partition is kept.
+     *
+     * @return the names of the partitions detached
+     */
+    public List<String> detachPartitionsBefore(String table, YearMonth firstKept, boolean drop) {
+        List<String> detached = new ArrayList<>();
+        List<String> unarchived = new ArrayList<>();
+        for (String partition : partitionsOf(table)) {
+            YearMonth month = monthOf(table, partition);
+            if (month == null || !month.isBefore(firstKept)) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class))) {
+                unarchived.add(partition);
+                continue;
+            }
+            jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", table, partition));
+            if (drop) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+            detached.add(partition);
+        }
+        if (!detached.isEmpty()) {
+            log.info("{} partitions {} of {}", drop ? "Dropped" : "Detached", detached, table);
+        }
+        if (!unarchived.isEmpty()) {
+            log.warn("Kept partitions {} of {} because they still hold rows that are not archived", unarchived, table);
+        }
+        return detached;
+    }
+
+    public List<String> partitionsOf(String table) {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table);
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    private static YearMonth monthOf(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 6) {
+            return null;
+        }
+        return YearMonth.parse(partition.substring(prefix.length()), SUFFIX);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RowCountEstimateRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.contracts.RowCountServiceInterface;
+import com.example.bankcards.util.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Whole-table totals come from the planner statistics. Per-user totals are exact counts cached
+ * for {@code app.pagination.count-cache.ttl-seconds}, so paging through a list counts at most
+ * once per time to live instead of once per page.
+ */
+@Service
+public class RowCountService implements RowCountServiceInterface {
+
+    private final RowCountEstimateRepository estimateRepository;
+    private final CardRepository cardRepository;
+    private final TransferRepository transferRepository;
+    private final BoundedTtlCache<CountKey, Long> userCounts;
+
+    public RowCountService(RowCountEstimateRepository estimateRepository,
+                           CardRepository cardRepository,
+                           TransferRepository transferRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.pagination.count-cache.size:10000}") int cacheSize,
+                           @Value("${app.pagination.count-cache.ttl-seconds:30}") long cacheTtlSeconds) {
+        this.estimateRepository = estimateRepository;
+        this.cardRepository = cardRepository;
+        this.transferRepository = transferRepository;
+        this.userCounts = new BoundedTtlCache<>(cacheSize, Duration.ofSeconds(cacheTtlSeconds));
+        this.userCounts.registerMetrics(meterRegistry, "user-row-counts");
+    }
+
+    @Override
+    public Long estimateCards() {
+        return estimateRepository.estimateRows("cards");
+    }
+
+    @Override
+    public Long estimateUsers() {
+        return estimateRepository.estimateRows("users");
+    }
+
+    @Override
+    public long countUserCards(Long userId) {
+        return cached(new CountKey("cards", userId), () -> cardRepository.countByUserIdAndDeletedAtIsNull(userId));
+    }
+
+    @Override
+    public long countUserTransfers(Long userId) {
+        return cached(new CountKey("transfers", userId), () -> transferRepository.countByUserId(userId));
+    }
+
+    private long cached(CountKey key, LongSupplier counter) {
+        Long count = userCounts.get(key);
+        if (count == null) {
+            count = counter.getAsLong();
+            userCounts.put(key, count);
+        }
+        return count;
+    }
+
+    private record CountKey(String table, Long userId) {
+    }
+}
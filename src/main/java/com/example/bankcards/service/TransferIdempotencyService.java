@@ -0,0 +1,142 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.dto.transfer.TransferResponse;
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
+import com.example.bankcards.repository.TransferIdempotencyKeyRepository;
+import com.example.bankcards.service.contracts.TransferIdempotencyServiceInterface;
+import com.example.bankcards.util.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Remembers which transfer was created for an Idempotency-Key. The unique index on
+ * (user_id, idempotency_key) is the source of truth; the in-memory cache answers hot retries.
+ * Every key stores a fingerprint of its request, and replaying the key with a different request
+ * fails with {@link IdempotencyKeyReusedException}. Keys are purged after {@code retentionHours},
+ * after which the key executes a new transfer.
+ */
+@Service
+@Slf4j
+public class TransferIdempotencyService implements TransferIdempotencyServiceInterface {
+
+    private final TransferIdempotencyKeyRepository keyRepository;
+    private final BoundedTtlCache<CacheKey, StoredResponse> cache;
+    private final long retentionHours;
+
+    public TransferIdempotencyService(TransferIdempotencyKeyRepository keyRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.transfer.idempotency.cache-size:10000}") int cacheSize,
+                                      @Value("${app.transfer.idempotency.cache-ttl-seconds:600}") long cacheTtlSeconds,
+                                      @Value("${app.transfer.idempotency.retention-hours:24}") long retentionHours) {
+        this.keyRepository = keyRepository;
+        this.cache = new BoundedTtlCache<>(cacheSize, Duration.ofSeconds(cacheTtlSeconds));
+        this.cache.registerMetrics(meterRegistry, "transfer-idempotency");
+        this.retentionHours = retentionHours;
+    }
+
+    @Override
+    public Optional<TransferResponse> getCachedResponse(Long userId, String idempotencyKey, TransferRequest request) {
+        StoredResponse stored = cache.get(new CacheKey(userId, idempotencyKey));
+        if (stored == null) {
+            return Optional.empty();
+        }
+        checkFingerprint(idempotencyKey, stored.requestHash(), request);
+        return Optional.of(stored.response());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Long> findTransferId(Long userId, String idempotencyKey, TransferRequest request) {
+        return keyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                .map(key -> {
+                    checkFingerprint(idempotencyKey, key.getRequestHash(), request);
+                    return key.getTransferId();
+                });
+    }
+
+    /**
+     * Must run in the transfer's transaction: a concurrent request with the same key fails on
+     * the unique index and rolls back its transfer. The response is cached only after commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void recordTransfer(Long userId, String idempotencyKey, TransferRequest request, TransferResponse response) {
+        TransferIdempotencyKey key = new TransferIdempotencyKey();
+        key.setUserId(userId);
+        key.setIdempotencyKey(idempotencyKey);
+        key.setTransferId(response.getId());
+        key.setRequestHash(fingerprint(request));
+        keyRepository.saveAndFlush(key);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cacheResponse(userId, idempotencyKey, request, response);
+            }
+        });
+    }
+
+    @Override
+    public void cacheResponse(Long userId, String idempotencyKey, TransferRequest request, TransferResponse response) {
+        cache.put(new CacheKey(userId, idempotencyKey), new StoredResponse(fingerprint(request), response));
+    }
+
+    @Scheduled(cron = "${app.transfer.idempotency.purge-cron:0 30 * * * *}")
+    @Transactional
+    @Override
+    public int purgeExpiredKeys() {
+        int purged = keyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            log.info("Purged {} idempotency keys older than {} hours", purged, retentionHours);
+        }
+        return purged;
+    }
+
+    /**
+     * Hex SHA-256 of the fields that decide what the transfer does. The amount is normalized,
+     * so 10 and 10.00 are the same transfer.
+     */
+    static String fingerprint(TransferRequest request) {
+        BigDecimal amount = request.getAmount();
+        String canonical = request.getFromCardId() + "|" + request.getToCardId() + "|"
+                + (amount != null ? amount.stripTrailingZeros().toPlainString() : "") + "|"
+                + Objects.toString(request.getDescription(), "");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void checkFingerprint(String idempotencyKey, String storedHash, TransferRequest request) {
+        if (!storedHash.equals(fingerprint(request))) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+    }
+
+    private record CacheKey(Long userId, String idempotencyKey) {
+    }
+
+    private record StoredResponse(String requestHash, TransferResponse response) {
+    }
+}
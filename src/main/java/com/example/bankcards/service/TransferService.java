@@ -1,43 +1,108 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.CursorPageResponse;
+import com.example.bankcards.dto.SliceResponse;
+import com.example.bankcards.dto.transfer.BatchTransferItemResult;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
+import com.example.bankcards.dto.transfer.TransferCursor;
+import com.example.bankcards.dto.transfer.TransferPeriod;
 import com.example.bankcards.dto.transfer.TransferRequest;
 import com.example.bankcards.dto.transfer.TransferResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.LedgerEntry;
 import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.exception.*;
+import com.example.bankcards.repository.CardBalanceRepository;
+import com.example.bankcards.repository.CardBalanceRepository.PostedCard;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryBatchRepository;
+import com.example.bankcards.repository.TransferBatchRepository;
 import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.TransferStatementRepository;
+import com.example.bankcards.repository.projection.TransferView;
+import com.example.bankcards.service.contracts.ArchiveServiceInterface;
 import com.example.bankcards.service.contracts.CardEventServiceInterface;
+import com.example.bankcards.service.contracts.RowCountServiceInterface;
+import com.example.bankcards.service.contracts.TransferIdempotencyServiceInterface;
 import com.example.bankcards.service.contracts.TransferServiceInterface;
 import com.example.bankcards.util.CardMaskingUtil;
-import com.example.bankcards.util.EncryptionUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransferService implements TransferServiceInterface {
 
+    /**
+     * LOCKING loads both cards with SELECT ... FOR UPDATE and updates balances in Java.
+     * ATOMIC debits and credits with conditional UPDATE statements without loading the cards first.
+     */
+    public enum ExecutionMode {
+        LOCKING, ATOMIC
+    }
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final TransferRepository transferRepository;
     private final CardRepository cardRepository;
-    private final EncryptionUtil encryptionUtil;
+    private final CardBalanceRepository balanceRepository;
     private final CardMaskingUtil maskingUtil;
     @Autowired
     private final CardEventServiceInterface eventService;
     @Autowired
     private final TransferFailService failService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferBatchRepository transferBatchRepository;
+    private final TransferStatementRepository transferStatementRepository;
+    private final TransferIdempotencyServiceInterface idempotencyService;
+    private final LedgerEntryBatchRepository ledgerRepository;
+    private final ArchiveServiceInterface archiveService;
+    private final RowCountServiceInterface rowCountService;
+
+    @Value("${app.transfer.mode:LOCKING}")
+    private ExecutionMode executionMode;
 
-    @Transactional
+    @Value("${app.transfer.lock-retry.max-attempts:3}")
+    private int maxLockAttempts;
+
+    @Value("${app.transfer.lock-retry.backoff-ms:20}")
+    private long lockRetryBackoffMs;
+
+    /**
+     * Runs the transfer in its own transaction and retries it when the database aborts it
+     * because of a deadlock or serialization failure.
+     */
     @Override
     public TransferResponse executeTransfer(TransferRequest request, Long userId) {
         log.info("Executing transfer from card {} to card {} for user {}",
@@ -45,14 +110,162 @@ public class TransferService implements TransferServiceInterface {
 
         validateTransferRequest(request, userId);
 
-        Card fromCard = cardRepository.findByIdForUpdate(request.getFromCardId())
+        return withLockRetry(() -> transactionTemplate.execute(status -> doExecuteTransfer(request, userId)));
+    }
+
+    /**
+     * Same as {@link #executeTransfer(TransferRequest, Long)}, but a repeated idempotency key returns
+     * the response of the transfer created for it the first time without locking any card, as long
+     * as the request is the same; a key reused for a different request is rejected.
+     */
+    @Override
+    public TransferResponse executeTransfer(TransferRequest request, Long userId, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return executeTransfer(request, userId);
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+            throw new InvalidTransferException("Idempotency key must be 1 to 255 characters long");
+        }
+
+        Optional<TransferResponse> previous = findIdempotentResponse(userId, idempotencyKey, request);
+        if (previous.isPresent()) {
+            log.info("Transfer for idempotency key {} of user {} already executed: {}",
+                idempotencyKey, userId, previous.get().getId());
+            return previous.get();
+        }
+
+        log.info("Executing transfer from card {} to card {} for user {} with idempotency key {}",
+            request.getFromCardId(), request.getToCardId(), userId, idempotencyKey);
+
+        validateTransferRequest(request, userId);
+
+        try {
+            return withLockRetry(() -> transactionTemplate.execute(status -> {
+                TransferResponse response = doExecuteTransfer(request, userId);
+                idempotencyService.recordTransfer(userId, idempotencyKey, request, response);
+                return response;
+            }));
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent request with the same key committed first, this one was rolled back
+            return findIdempotentResponse(userId, idempotencyKey, request).orElseThrow(() -> ex);
+        }
+    }
+
+    private Optional<TransferResponse> findIdempotentResponse(Long userId, String idempotencyKey,
+                                                             TransferRequest request) {
+        Optional<TransferResponse> cached = idempotencyService.getCachedResponse(userId, idempotencyKey, request);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        return idempotencyService.findTransferId(userId, idempotencyKey, request)
+            .map(transferId -> {
+                TransferResponse response = transactionTemplate.execute(status -> getTransferById(transferId, userId));
+                idempotencyService.cacheResponse(userId, idempotencyKey, request, response);
+                return response;
+            });
+    }
+
+    private TransferResponse doExecuteTransfer(TransferRequest request, Long userId) {
+        return executionMode == ExecutionMode.ATOMIC
+            ? executeAtomically(request, userId)
+            : executeWithLocks(request, userId);
+    }
+
+    private TransferResponse executeWithLocks(TransferRequest request, Long userId) {
+        Map<Long, Card> cards = lockCards(List.of(request.getFromCardId(), request.getToCardId()));
+
+        Card fromCard = cards.get(request.getFromCardId());
+        if (fromCard == null) {
+            throw new CardNotFoundException(request.getFromCardId());
+        }
+
+        Card toCard = cards.get(request.getToCardId());
+        if (toCard == null) {
+            throw new CardNotFoundException(request.getToCardId());
+        }
+
+        validateCards(fromCard, toCard, request.getAmount(), userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<LedgerEntry> entries = List.of(
+            fromCard.post(request.getAmount().negate(), now),
+            toCard.post(request.getAmount(), now)
+        );
+        // fromCard and toCard save are not needed because Spring Data flush while commit
+
+        return completeTransfer(fromCard, toCard, request, userId, entries, this::maskCardNumber);
+    }
+
+    /**
+     * Moves the money with two conditional UPDATE statements. An empty result tells that an ownership,
+     * status, expiry or balance check failed, so no card is read before the update. The updates return
+     * the posted balances, and the transfer references the cards through proxies, so none is read after it either.
+     */
+    private TransferResponse executeAtomically(TransferRequest request, Long userId) {
+        Long fromCardId = request.getFromCardId();
+        Long toCardId = request.getToCardId();
+        BigDecimal amount = request.getAmount();
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Touch rows in id order so that concurrent transfers lock them in the same order
+        Optional<PostedCard> debited;
+        Optional<PostedCard> credited;
+        if (fromCardId < toCardId) {
+            debited = balanceRepository.debit(fromCardId, userId, amount, today, now);
+            credited = debited.isPresent()
+                ? balanceRepository.credit(toCardId, userId, amount, today, now)
+                : Optional.empty();
+        } else {
+            credited = balanceRepository.credit(toCardId, userId, amount, today, now);
+            debited = credited.isPresent()
+                ? balanceRepository.debit(fromCardId, userId, amount, today, now)
+                : Optional.empty();
+        }
+
+        if (debited.isEmpty() || credited.isEmpty()) {
+            rejectTransfer(request, userId);
+        }
+
+        PostedCard from = debited.get();
+        PostedCard to = credited.get();
+        List<LedgerEntry> entries = List.of(
+            from.ledgerEntry(amount.negate(), now),
+            to.ledgerEntry(amount, now)
+        );
+        String fromMasked = maskingUtil.maskCardNumber(from.cardNumberLastFour());
+        String toMasked = maskingUtil.maskCardNumber(to.cardNumberLastFour());
+        Function<Card, String> masker = card -> fromCardId.equals(card.getId()) ? fromMasked : toMasked;
+
+        return completeTransfer(cardRepository.getReferenceById(fromCardId), cardRepository.getReferenceById(toCardId),
+            request, userId, entries, masker);
+    }
+
+    /**
+     * Called when a conditional update matched no row. Reloads the cards only to report
+     * the same error the locking path would have raised.
+     */
+    private void rejectTransfer(TransferRequest request, Long userId) {
+        Card fromCard = cardRepository.findById(request.getFromCardId())
+            .filter(card -> card.getDeletedAt() == null)
             .orElseThrow(() -> new CardNotFoundException(request.getFromCardId()));
 
-        Card toCard = cardRepository.findByIdForUpdate(request.getToCardId())
+        Card toCard = cardRepository.findById(request.getToCardId())
+            .filter(card -> card.getDeletedAt() == null)
             .orElseThrow(() -> new CardNotFoundException(request.getToCardId()));
 
         validateCards(fromCard, toCard, request.getAmount(), userId);
 
+        throw new InvalidTransferException("Transfer was rejected because card state changed concurrently");
+    }
+
+    /**
+     * Saves the transfer and appends its ledger entries, whose balance changes are already applied.
+     */
+    private TransferResponse completeTransfer(Card fromCard, Card toCard, TransferRequest request, Long userId,
+                                              List<LedgerEntry> entries, Function<Card, String> masker) {
         Transfer transfer = new Transfer();
         transfer.setFromCard(fromCard);
         transfer.setToCard(toCard);
@@ -61,15 +274,13 @@ public class TransferService implements TransferServiceInterface {
         transfer.setUserId(userId);
 
         try {
-            fromCard.setBalance(fromCard.getBalance().subtract(request.getAmount()));
-            toCard.setBalance(toCard.getBalance().add(request.getAmount()));
-            // fromCard and toCard save are not needed because Spring Data flush while commit
-
             transfer.setStatus(Transfer.TransferStatus.COMPLETED);
             transferRepository.save(transfer);
+            entries.forEach(entry -> entry.setTransferId(transfer.getId()));
+            ledgerRepository.insertAll(entries);
 
             log.info("Transfer completed successfully: {}", transfer.getId());
-            return mapToResponse(transfer);
+            return mapToResponse(transfer, masker);
         } catch (Exception ex) {
             log.error("Transfer {} failed: {}", transfer.getId(), ex.getMessage(), ex);
             failService.logFailure(transfer, ex.getMessage());
@@ -78,25 +289,174 @@ public class TransferService implements TransferServiceInterface {
         }
     }
 
+    /**
+     * Locks every card referenced by the batch once, applies the transfers in request order
+     * against the locked balances and inserts all transfer rows and ledger entries with JDBC batches.
+     */
+    @Override
+    public BatchTransferResponse executeTransfers(BatchTransferRequest request, Long userId) {
+        log.info("Executing batch of {} transfers for user {} (allOrNothing={})",
+            request.getTransfers().size(), userId, request.isAllOrNothing());
+
+        return withLockRetry(() -> transactionTemplate.execute(status -> doExecuteTransfers(request, userId)));
+    }
+
+    private BatchTransferResponse doExecuteTransfers(BatchTransferRequest request, Long userId) {
+        List<TransferRequest> items = request.getTransfers();
+
+        Set<Long> cardIds = new HashSet<>();
+        for (TransferRequest item : items) {
+            cardIds.add(item.getFromCardId());
+            cardIds.add(item.getToCardId());
+        }
+        Map<Long, Card> cards = lockCards(cardIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transfer> transfers = new ArrayList<>(items.size());
+        List<Integer> transferIndexes = new ArrayList<>(items.size());
+        List<LedgerEntry> entries = new ArrayList<>(items.size() * 2);
+        BatchTransferItemResult[] results = new BatchTransferItemResult[items.size()];
+
+        for (int i = 0; i < items.size(); i++) {
+            TransferRequest item = items.get(i);
+            try {
+                validateTransferRequest(item, userId);
+
+                Card fromCard = cards.get(item.getFromCardId());
+                if (fromCard == null) {
+                    throw new CardNotFoundException(item.getFromCardId());
+                }
+
+                Card toCard = cards.get(item.getToCardId());
+                if (toCard == null) {
+                    throw new CardNotFoundException(item.getToCardId());
+                }
+
+                validateCards(fromCard, toCard, item.getAmount(), userId);
+
+                entries.add(fromCard.post(item.getAmount().negate(), now));
+                entries.add(toCard.post(item.getAmount(), now));
+
+                Transfer transfer = new Transfer();
+                transfer.setFromCard(fromCard);
+                transfer.setToCard(toCard);
+                transfer.setAmount(item.getAmount());
+                transfer.setDescription(item.getDescription());
+                transfer.setUserId(userId);
+                transfer.setStatus(Transfer.TransferStatus.COMPLETED);
+                transfer.setCreatedAt(now);
+
+                transfers.add(transfer);
+                transferIndexes.add(i);
+            } catch (ResourceNotFoundException | UnauthorizedException | CardNotActiveException
+                     | InsufficientBalanceException | InvalidTransferException ex) {
+                if (request.isAllOrNothing()) {
+                    log.warn("Batch transfer item {} rejected, rolling back batch: {}", i, ex.getMessage());
+                    throw ex;
+                }
+                results[i] = BatchTransferItemResult.rejected(i, ex.getMessage());
+            }
+        }
+
+        transferBatchRepository.insertAll(transfers);
+        // Entries come in pairs, in the same order as the transfers
+        for (int i = 0; i < entries.size(); i++) {
+            entries.get(i).setTransferId(transfers.get(i / 2).getId());
+        }
+        ledgerRepository.insertAll(entries);
+
+        Map<Long, String> maskedNumbers = new HashMap<>();
+        Function<Card, String> masker = card -> maskedNumbers.computeIfAbsent(card.getId(), id -> maskCardNumber(card));
+        for (int i = 0; i < transfers.size(); i++) {
+            int index = transferIndexes.get(i);
+            results[index] = BatchTransferItemResult.completed(index, mapToResponse(transfers.get(i), masker));
+        }
+
+        log.info("Batch completed for user {}: {} applied, {} rejected",
+            userId, transfers.size(), items.size() - transfers.size());
+        return new BatchTransferResponse(List.of(results), transfers.size(), items.size() - transfers.size());
+    }
+
     @Transactional(readOnly = true)
     @Override
-    public Page<TransferResponse> getUserTransfers(Long userId, Pageable pageable) {
-        return transferRepository.findByUserId(userId, pageable).map(this::mapToResponse);
+    public Page<TransferResponse> getUserTransfers(Long userId, TransferPeriod period, Pageable pageable) {
+        return transferRepository.findViewsByUserId(userId, period.lowerBound(), period.upperBound(), pageable)
+            .map(this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public Page<TransferResponse> getCardTransfers(Long cardId, Long userId, Pageable pageable) {
-        return transferRepository.findByCardIdAndUserId(cardId, userId, pageable).map(this::mapToResponse);
+    public SliceResponse<TransferResponse> getUserTransfersSlice(Long userId, TransferPeriod period, Pageable pageable) {
+        return new SliceResponse<>(
+            transferRepository.findViewSliceByUserId(userId, period.lowerBound(), period.upperBound(), pageable)
+                .map(this::mapToResponse),
+            TransferPeriod.ALL.equals(period) ? rowCountService.countUserTransfers(userId) : null
+        );
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageResponse<TransferResponse> getUserTransfers(Long userId, Long cardId, TransferPeriod period,
+                                                                 String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        // One extra row tells whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        TransferCursor position = cursor != null ? TransferCursor.decode(cursor) : null;
+
+        List<TransferView> transfers;
+        if (cardId != null) {
+            transfers = position == null
+                ? transferStatementRepository.findPage(cardId, userId, period, 0, limit.max())
+                : transferStatementRepository.findPageAfter(cardId, userId, period,
+                    position.createdAt(), position.id(), limit.max());
+        } else {
+            LocalDateTime from = period.lowerBound();
+            LocalDateTime to = period.upperBound();
+            transfers = position == null
+                ? transferRepository.findFirstByUserId(userId, from, to, limit)
+                : transferRepository.findNextByUserId(userId, from, to, position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasNext = transfers.size() > pageSize;
+        if (hasNext) {
+            transfers = transfers.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            TransferView last = transfers.get(transfers.size() - 1);
+            nextCursor = new TransferCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new CursorPageResponse<>(
+            transfers.stream().map(this::mapToResponse).toList(),
+            pageSize,
+            nextCursor,
+            hasNext
+        );
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Page<TransferResponse> getCardTransfers(Long cardId, Long userId, TransferPeriod period, Pageable pageable) {
+        List<TransferResponse> transfers = transferStatementRepository
+            .findPage(cardId, userId, period, pageable.getOffset(), pageable.getPageSize()).stream()
+            .map(this::mapToResponse)
+            .toList();
+        return PageableExecutionUtils.getPage(transfers, pageable,
+            () -> transferStatementRepository.count(cardId, userId, period));
     }
 
     @Transactional(readOnly = true)
     @Override
     public TransferResponse getTransferById(Long transferId, Long userId) {
-        Transfer transfer = transferRepository.findById(transferId)
+        // Transfers past their retention are only found in the archive
+        TransferView transfer = transferRepository.findViewById(transferId)
+            .or(() -> archiveService.findArchivedTransfer(transferId))
             .orElseThrow(() -> new ResourceNotFoundException("Transfer not found: " + transferId));
 
-        if (!transfer.getUserId().equals(userId)) {
+        if (!transfer.userId().equals(userId)) {
             throw new UnauthorizedException("You don't have access to this transfer");
         }
 
@@ -108,6 +468,37 @@ public class TransferService implements TransferServiceInterface {
         transferRepository.save(transfer);
     }
 
+    private Map<Long, Card> lockCards(Collection<Long> cardIds) {
+        return cardRepository.findAllByIdForUpdate(cardIds).stream()
+            .collect(Collectors.toMap(Card::getId, Function.identity()));
+    }
+
+    private <T> T withLockRetry(Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= maxLockAttempts) {
+                    log.error("Transfer aborted after {} attempts: {}", attempt, ex.getMessage());
+                    throw ex;
+                }
+                log.warn("Transfer attempt {} aborted by a lock conflict, retrying: {}", attempt, ex.getMessage());
+                backoff(attempt++);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long delay = lockRetryBackoffMs * attempt + ThreadLocalRandom.current().nextLong(lockRetryBackoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying transfer", e);
+        }
+    }
+
     private void validateTransferRequest(TransferRequest request, Long userId) {
         if (request.getFromCardId().equals(request.getToCardId())) {
             throw new InvalidTransferException("Cannot transfer to the same card");
@@ -142,15 +533,16 @@ public class TransferService implements TransferServiceInterface {
     }
 
     private TransferResponse mapToResponse(Transfer transfer) {
-        String fromCardNumber = encryptionUtil.decrypt(transfer.getFromCard().getCardNumberEncrypted());
-        String toCardNumber = encryptionUtil.decrypt(transfer.getToCard().getCardNumberEncrypted());
+        return mapToResponse(transfer, this::maskCardNumber);
+    }
 
+    private TransferResponse mapToResponse(Transfer transfer, Function<Card, String> masker) {
         return new TransferResponse(
             transfer.getId(),
             transfer.getFromCard().getId(),
-            maskingUtil.maskCardNumber(fromCardNumber),
+            masker.apply(transfer.getFromCard()),
             transfer.getToCard().getId(),
-            maskingUtil.maskCardNumber(toCardNumber),
+            masker.apply(transfer.getToCard()),
             transfer.getAmount(),
             transfer.getStatus().name(),
             transfer.getDescription(),
@@ -158,4 +550,23 @@ public class TransferService implements TransferServiceInterface {
             transfer.getCreatedAt()
         );
     }
+
+    private TransferResponse mapToResponse(TransferView transfer) {
+        return new TransferResponse(
+            transfer.id(),
+            transfer.fromCardId(),
+            maskingUtil.maskCardNumber(transfer.fromCardLastFour()),
+            transfer.toCardId(),
+            maskingUtil.maskCardNumber(transfer.toCardLastFour()),
+            transfer.amount(),
+            transfer.status().name(),
+            transfer.description(),
+            transfer.userId(),
+            transfer.createdAt()
+        );
+    }
+
+    private String maskCardNumber(Card card) {
+        return maskingUtil.maskCardNumber(card.getCardNumberLastFour());
+    }
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.SliceResponse;
 import com.example.bankcards.dto.user.UserResponse;
 import com.example.bankcards.dto.user.UserUpdateRequest;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.DuplicateResourceException;
+import com.example.bankcards.exception.ResourceInUseException;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipalCache;
+import com.example.bankcards.service.contracts.RowCountServiceInterface;
 import com.example.bankcards.service.contracts.UserServiceInterface;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +26,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService implements UserServiceInterface {
 
     private final UserRepository userRepository;
+    private final CardRepository cardRepository;
+    private final UserPrincipalCache principalCache;
+    private final RowCountServiceInterface rowCountService;
 
     @Transactional(readOnly = true)
     @Override
@@ -42,6 +50,13 @@ public class UserService implements UserServiceInterface {
         return userRepository.findAll(pageable).map(this::mapToResponse);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public SliceResponse<UserResponse> getAllUsersSlice(Pageable pageable) {
+        return new SliceResponse<>(userRepository.findSliceBy(pageable).map(this::mapToResponse),
+                rowCountService.estimateUsers());
+    }
+
     @Transactional
     @Override
     public UserResponse updateUser(Long userId, UserUpdateRequest request) {
@@ -67,6 +82,7 @@ public class UserService implements UserServiceInterface {
         }
 
         user = userRepository.save(user);
+        principalCache.evict(user.getUsername());
         log.info("User updated successfully: {}", userId);
 
         return mapToResponse(user);
@@ -79,7 +95,13 @@ public class UserService implements UserServiceInterface {
 
         User user = userRepository.findByIdForUpdate(userId).orElseThrow(() -> new UserNotFoundException(userId));
 
+        // Cards, deleted ones included, keep their append-only ledger and cannot be removed
+        if (cardRepository.existsByUserId(userId)) {
+            throw new ResourceInUseException("User " + userId + " has cards and cannot be deleted; disable the user instead");
+        }
+
         userRepository.delete(user);
+        principalCache.evict(user.getUsername());
         log.info("User deleted: {}", userId);
     }
 
@@ -92,6 +114,7 @@ public class UserService implements UserServiceInterface {
 
         user.setEnabled(!user.getEnabled());
         user = userRepository.save(user);
+        principalCache.evict(user.getUsername());
 
         log.info("User status toggled to {} for user: {}", user.getEnabled(), userId);
         return mapToResponse(user);
@@ -0,0 +1,16 @@
+package com.example.bankcards.service.contracts;
+
+import com.example.bankcards.repository.projection.TransferView;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ArchiveServiceInterface {
+    int archiveTransfers(LocalDateTime before);
+
+    int archiveCardEvents(LocalDateTime before);
+
+    Optional<TransferView> findArchivedTransfer(Long transferId);
+
+    long lastArchivedCardEventId();
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.service.contracts;
+
+import com.example.bankcards.dto.card.CardBalanceResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface BalanceSnapshotServiceInterface {
+    int takeSnapshots(LocalDate date);
+
+    CardBalanceResponse getBalanceAt(Long cardId, LocalDateTime at);
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.service.contracts;
+
+import com.example.bankcards.dto.event.ReplayReport;
+
+public interface CardEventReplayServiceInterface {
+    ReplayReport rebuild(String projection);
+
+    ReplayReport resume(String projection);
+}
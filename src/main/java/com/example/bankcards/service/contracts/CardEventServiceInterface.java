@@ -1,17 +1,32 @@
 package com.example.bankcards.service.contracts;
 
+import com.example.bankcards.dto.event.CardEventResponse;
+import com.example.bankcards.dto.event.CardStatusChange;
 import com.example.bankcards.entity.Card;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 public interface CardEventServiceInterface {
     @Transactional
     void recordCardCreatedEvent(Card card, Long userId);
 
+    @Transactional
+    void recordCardCreatedEvents(List<Card> cards);
+
     @Transactional
     void recordCardStatusChangedEvent(Long cardId, String oldStatus, String newStatus, Long userId, String reason);
 
+    @Transactional
+    void recordCardStatusChangedEvents(List<CardStatusChange> changes);
+
     @Transactional
     void recordCardDeletedEvent(Long cardId, Long userId);
+
+    @Transactional(readOnly = true)
+    Page<CardEventResponse> findEvents(String eventType, Long cardId, Map<String, String> payloadFields, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package com.example.bankcards.service.contracts;
+
+import com.example.bankcards.dto.card.CardImportResponse;
+
+import java.io.InputStream;
+
+public interface CardImportServiceInterface {
+    CardImportResponse importCards(InputStream csv);
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.service.contracts;
+
+import com.example.bankcards.dto.event.ReplayedCardEvent;
+
+import java.util.List;
+
+/**
+ * Read model built from card events by the replay engine. Disjoint aggregate id ranges are
+ * replayed in parallel, so a projection may rely on the order of the events of one card but
+ * not on the order across cards.
+ */
+public interface CardProjection {
+
+    /**
+     * Unique name, used for the checkpoints of the projection.
+     */
+    String name();
+
+    /**
+     * Removes all state of the projection before a rebuild.
+     */
+    void reset();
+
+    /**
+     * Applies a batch of events of one aggregate id range, in id order. Runs in the transaction
+     * that also stores the checkpoint after the batch.
+     */
+    void apply(List<ReplayedCardEvent> events);
+}
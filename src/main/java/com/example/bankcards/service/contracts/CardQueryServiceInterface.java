@@ -1,5 +1,6 @@
 package com.example.bankcards.service.contracts;
 
+import com.example.bankcards.dto.SliceResponse;
 import com.example.bankcards.dto.card.CardResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,4 +11,14 @@ import org.springframework.data.domain.Pageable;
 public interface CardQueryServiceInterface {
     Page<CardResponse> getAllCards(Pageable pageable);
     Page<CardResponse> getUserCards(Long userId, Pageable pageable);
+
+    /**
+     * Pages without a count query; the approximate total comes from the table statistics.
+     */
+    SliceResponse<CardResponse> getAllCardsSlice(Pageable pageable);
+
+    /**
+     * Pages without a count query; the approximate total is the user's cached card count.
+     */
+    SliceResponse<CardResponse> getUserCardsSlice(Long userId, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.bankcards.service.contracts;
+
+import com.example.bankcards.entity.CardEvent;
+
+import java.util.List;
+
+/**
+ * Destination of card events relayed from the outbox.
+ */
+public interface EventSink {
+
+    /**
+     * Delivers the events in the given order. Returns only when all of them were accepted;
+     * any exception makes the relay deliver the whole batch again later.
+     */
+    void publish(List<CardEvent> events);
+}
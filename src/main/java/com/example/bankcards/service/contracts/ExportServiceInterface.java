@@ -0,0 +1,11 @@
+package com.example.bankcards.service.contracts;
+
+import com.example.bankcards.dto.ExportFormat;
+
+import java.io.OutputStream;
+
+public interface ExportServiceInterface {
+    void exportCards(ExportFormat format, OutputStream out);
+
+    void exportTransfers(ExportFormat format, OutputStream out);
+}
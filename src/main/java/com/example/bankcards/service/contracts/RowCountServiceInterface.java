@@ -0,0 +1,14 @@
+package com.example.bankcards.service.contracts;
+
+/**
+ * Approximate totals for list responses that skip the exact {@code COUNT(*)}.
+ */
+public interface RowCountServiceInterface {
+    Long estimateCards();
+
+    Long estimateUsers();
+
+    long countUserCards(Long userId);
+
+    long countUserTransfers(Long userId);
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.service.contracts;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.dto.transfer.TransferResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface TransferIdempotencyServiceInterface {
+    /**
+     * Throws {@link com.example.bankcards.exception.IdempotencyKeyReusedException} when the key
+     * was used for a different request.
+     */
+    Optional<TransferResponse> getCachedResponse(Long userId, String idempotencyKey, TransferRequest request);
+
+    /**
+     * Throws {@link com.example.bankcards.exception.IdempotencyKeyReusedException} when the key
+     * was used for a different request.
+     */
+    @Transactional(readOnly = true)
+    Optional<Long> findTransferId(Long userId, String idempotencyKey, TransferRequest request);
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    void recordTransfer(Long userId, String idempotencyKey, TransferRequest request, TransferResponse response);
+
+    void cacheResponse(Long userId, String idempotencyKey, TransferRequest request, TransferResponse response);
+
+    /**
+     * Deletes the keys past their retention, see {@code app.transfer.idempotency.retention-hours}.
+     *
+     * @return the number of keys deleted
+     */
+    @Transactional
+    int purgeExpiredKeys();
+}
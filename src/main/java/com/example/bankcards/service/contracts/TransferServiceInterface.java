@@ -1,5 +1,10 @@
 package com.example.bankcards.service.contracts;
 
+import com.example.bankcards.dto.CursorPageResponse;
+import com.example.bankcards.dto.SliceResponse;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
+import com.example.bankcards.dto.transfer.TransferPeriod;
 import com.example.bankcards.dto.transfer.TransferRequest;
 import com.example.bankcards.dto.transfer.TransferResponse;
 import org.springframework.data.domain.Page;
@@ -7,14 +12,47 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
 public interface TransferServiceInterface {
-    @Transactional
+    /**
+     * Manages its own transaction so that lock conflicts can be retried.
+     */
     TransferResponse executeTransfer(TransferRequest request, Long userId);
 
+    /**
+     * Executes the transfer once per idempotency key; repeated keys return the stored response,
+     * or fail with {@link com.example.bankcards.exception.IdempotencyKeyReusedException} when the
+     * request differs from the first one.
+     */
+    TransferResponse executeTransfer(TransferRequest request, Long userId, String idempotencyKey);
+
+    /**
+     * Executes all transfers in one transaction, see {@link BatchTransferRequest#isAllOrNothing()}.
+     */
+    BatchTransferResponse executeTransfers(BatchTransferRequest request, Long userId);
+
+    @Transactional(readOnly = true)
+    Page<TransferResponse> getUserTransfers(Long userId, TransferPeriod period, Pageable pageable);
+
+    /**
+     * Pages without a count query. The approximate total is the user's cached transfer count,
+     * only given for the unbounded period.
+     */
+    @Transactional(readOnly = true)
+    SliceResponse<TransferResponse> getUserTransfersSlice(Long userId, TransferPeriod period, Pageable pageable);
+
+    /**
+     * Keyset-paginated transfers of the user created in the period, newest first, optionally only
+     * those of one card. A null cursor returns the first page.
+     */
     @Transactional(readOnly = true)
-    Page<TransferResponse> getUserTransfers(Long userId, Pageable pageable);
+    CursorPageResponse<TransferResponse> getUserTransfers(Long userId, Long cardId, TransferPeriod period,
+                                                          String cursor, int size);
 
+    /**
+     * Transfers from or to the card created in the period, always newest first; the sort of the
+     * pageable is ignored.
+     */
     @Transactional(readOnly = true)
-    Page<TransferResponse> getCardTransfers(Long cardId, Long userId, Pageable pageable);
+    Page<TransferResponse> getCardTransfers(Long cardId, Long userId, TransferPeriod period, Pageable pageable);
 
     @Transactional(readOnly = true)
     TransferResponse getTransferById(Long transferId, Long userId);
@@ -1,5 +1,6 @@
 package com.example.bankcards.service.contracts;
 
+import com.example.bankcards.dto.SliceResponse;
 import com.example.bankcards.dto.user.UserResponse;
 import com.example.bankcards.dto.user.UserUpdateRequest;
 import org.springframework.data.domain.Page;
@@ -16,6 +17,12 @@ public interface UserServiceInterface {
     @Transactional(readOnly = true)
     Page<UserResponse> getAllUsers(Pageable pageable);
 
+    /**
+     * Pages without a count query; the approximate total comes from the table statistics.
+     */
+    @Transactional(readOnly = true)
+    SliceResponse<UserResponse> getAllUsersSlice(Pageable pageable);
+
     @Transactional
     UserResponse updateUser(Long userId, UserUpdateRequest request);
 
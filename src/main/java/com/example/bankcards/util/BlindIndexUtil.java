@@ -0,0 +1,44 @@
+package com.example.bankcards.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+/**
+ * Keyed HMAC-SHA256 of card numbers ("blind index"). Equal card numbers always give the same
+ * hash, so duplicates can be found through an indexed column without comparing ciphertexts.
+ */
+@Component
+public class BlindIndexUtil {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec secretKey;
+    private final ThreadLocal<Mac> mac;
+
+    public BlindIndexUtil(@Value("${encryption.blind-index-key}") String secret) {
+        this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Returns the hex encoded HMAC of the value, 64 characters long.
+     */
+    public String hash(String value) {
+        return HexFormat.of().formatHex(mac.get().doFinal(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(secretKey);
+            return instance;
+        } catch (Exception e) {
+            throw new RuntimeException("Error initializing blind index", e);
+        }
+    }
+}
@@ -3,17 +3,37 @@ package com.example.bankcards.util;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Masking, formatting and Luhn validation of card numbers (PANs of 13 to 19 digits). These run
+ * for every card in every response, so they walk the characters directly instead of using
+ * regular expressions, substrings or {@code String.format}.
+ */
 @Component
 public class CardMaskingUtil {
 
-    @Value("${app.card.mask-pattern}")
-    private String maskPattern;
+    public static final int MIN_LENGTH = 13;
+    public static final int MAX_LENGTH = 19;
 
-    @Value("${app.card.visible-digits}")
-    private int visibleDigits;
+    private final String maskPattern;
+    private final int visibleDigits;
+    // Text around the "%s" of the pattern, or null when the pattern needs String.format
+    private final String maskPrefix;
+    private final String maskSuffix;
+
+    public CardMaskingUtil(@Value("${app.card.mask-pattern}") String maskPattern,
+                           @Value("${app.card.visible-digits}") int visibleDigits) {
+        this.maskPattern = maskPattern;
+        this.visibleDigits = visibleDigits;
+        int placeholder = maskPattern.indexOf("%s");
+        boolean plain = placeholder >= 0 && maskPattern.indexOf('%') == placeholder
+                && maskPattern.indexOf('%', placeholder + 2) < 0;
+        this.maskPrefix = plain ? maskPattern.substring(0, placeholder) : null;
+        this.maskSuffix = plain ? maskPattern.substring(placeholder + 2) : null;
+    }
 
     /**
-     * Masks a card number showing only the last N digits
+     * Masks a card number showing only the last N digits.
+     * Also accepts just the stored last digits of the number.
      * Example: 1234567890123456 -> **** **** **** 3456
      */
     public String maskCardNumber(String cardNumber) {
@@ -21,8 +41,12 @@ public class CardMaskingUtil {
             return "****";
         }
 
+        // substring returns the same string for the stored last digits, so nothing is copied
         String lastDigits = cardNumber.substring(cardNumber.length() - visibleDigits);
-        return String.format(maskPattern, lastDigits);
+        if (maskPrefix == null) {
+            return String.format(maskPattern, lastDigits);
+        }
+        return maskPrefix + lastDigits + maskSuffix;
     }
 
     /**
@@ -30,36 +54,41 @@ public class CardMaskingUtil {
      * Example: 1234567890123456 -> 1234 5678 9012 3456
      */
     public String formatCardNumber(String cardNumber) {
-        if (cardNumber == null || cardNumber.length() != 16) {
+        if (cardNumber == null || cardNumber.length() < MIN_LENGTH || cardNumber.length() > MAX_LENGTH) {
             return cardNumber;
         }
 
-        StringBuilder formatted = new StringBuilder();
-        for (int i = 0; i < cardNumber.length(); i++) {
+        int length = cardNumber.length();
+        char[] formatted = new char[length + (length - 1) / 4];
+        int position = 0;
+        for (int i = 0; i < length; i++) {
             if (i > 0 && i % 4 == 0) {
-                formatted.append(" ");
+                formatted[position++] = ' ';
             }
-            formatted.append(cardNumber.charAt(i));
+            formatted[position++] = cardNumber.charAt(i);
         }
-        return formatted.toString();
+        return new String(formatted);
     }
 
     /**
      * Validates card number using Luhn algorithm
      */
     public boolean isValidCardNumber(String cardNumber) {
-        if (cardNumber == null || !cardNumber.matches("\\d{16}")) {
+        if (cardNumber == null || cardNumber.length() < MIN_LENGTH || cardNumber.length() > MAX_LENGTH) {
             return false;
         }
 
         int sum = 0;
         boolean alternate = false;
         for (int i = cardNumber.length() - 1; i >= 0; i--) {
-            int n = Integer.parseInt(cardNumber.substring(i, i + 1));
+            int n = cardNumber.charAt(i) - '0';
+            if (n < 0 || n > 9) {
+                return false;
+            }
             if (alternate) {
                 n *= 2;
                 if (n > 9) {
-                    n = (n % 10) + 1;
+                    n -= 9;
                 }
             }
             sum += n;
@@ -67,4 +96,4 @@ public class CardMaskingUtil {
         }
         return (sum % 10 == 0);
     }
-}
\ No newline at end of file
+}
@@ -7,14 +7,23 @@ import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
 
+/**
+ * AES encryption of card data. {@code Cipher.getInstance} and {@code init} are costly, so every
+ * thread keeps its own initialized encrypt and decrypt ciphers. {@code doFinal} resets a cipher
+ * to its initialized state, which makes it reusable for the next value.
+ */
 @Component
 public class EncryptionUtil {
 
     private final SecretKeySpec secretKey;
     private final String algorithm;
+    private final ThreadLocal<Cipher> encryptCipher;
+    private final ThreadLocal<Cipher> decryptCipher;
 
     public EncryptionUtil(@Value("${encryption.secret-key}") String secret,
                           @Value("${encryption.algorithm}") String algorithm) {
@@ -28,27 +37,74 @@ public class EncryptionUtil {
         } catch (Exception e) {
             throw new RuntimeException("Error initializing encryption", e);
         }
+        this.encryptCipher = ThreadLocal.withInitial(() -> newCipher(Cipher.ENCRYPT_MODE));
+        this.decryptCipher = ThreadLocal.withInitial(() -> newCipher(Cipher.DECRYPT_MODE));
     }
 
     public String encrypt(String data) {
+        return encrypt(encryptCipher.get(), data);
+    }
+
+    public String decrypt(String encryptedData) {
+        return decrypt(decryptCipher.get(), encryptedData);
+    }
+
+    /**
+     * Encrypts all values with one cipher lookup. The result keeps the order of the input.
+     */
+    public List<String> encryptAll(List<String> data) {
+        Cipher cipher = encryptCipher.get();
+        List<String> encrypted = new ArrayList<>(data.size());
+        for (String value : data) {
+            encrypted.add(encrypt(cipher, value));
+        }
+        return encrypted;
+    }
+
+    /**
+     * Decrypts all values with one cipher lookup. The result keeps the order of the input.
+     */
+    public List<String> decryptAll(List<String> encryptedData) {
+        Cipher cipher = decryptCipher.get();
+        List<String> decrypted = new ArrayList<>(encryptedData.size());
+        for (String value : encryptedData) {
+            decrypted.add(decrypt(cipher, value));
+        }
+        return decrypted;
+    }
+
+    private String encrypt(Cipher cipher, String data) {
         try {
-            Cipher cipher = Cipher.getInstance(algorithm);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
             byte[] encrypted = cipher.doFinal(data.getBytes(StandardCharsets.UTF_8));
             return Base64.getEncoder().encodeToString(encrypted);
         } catch (Exception e) {
+            resetCipher(encryptCipher, Cipher.ENCRYPT_MODE);
             throw new RuntimeException("Error encrypting data", e);
         }
     }
 
-    public String decrypt(String encryptedData) {
+    private String decrypt(Cipher cipher, String encryptedData) {
         try {
-            Cipher cipher = Cipher.getInstance(algorithm);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
             byte[] decrypted = cipher.doFinal(Base64.getDecoder().decode(encryptedData));
             return new String(decrypted, StandardCharsets.UTF_8);
         } catch (Exception e) {
+            resetCipher(decryptCipher, Cipher.DECRYPT_MODE);
             throw new RuntimeException("Error decrypting data", e);
         }
     }
-}
\ No newline at end of file
+
+    private void resetCipher(ThreadLocal<Cipher> cipher, int mode) {
+        // A failed doFinal may leave buffered input behind, so the cipher is not reused
+        cipher.set(newCipher(mode));
+    }
+
+    private Cipher newCipher(int mode) {
+        try {
+            Cipher cipher = Cipher.getInstance(algorithm);
+            cipher.init(mode, secretKey);
+            return cipher;
+        } catch (Exception e) {
+            throw new RuntimeException("Error initializing encryption", e);
+        }
+    }
+}
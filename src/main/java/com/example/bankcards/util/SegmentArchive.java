@@ -0,0 +1,280 @@
+package com.example.bankcards.util;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only archive of text lines keyed by ascending ids, stored as immutable segment files in
+ * one directory. A segment is a sequence of gzip members of {@code blockRows} lines each, so the
+ * whole file is still readable with {@code zcat}, and its index lists the id range and byte range
+ * of every block. A lookup decompresses only the one block that can contain the id.
+ */
+public class SegmentArchive {
+
+    private static final String DATA_SUFFIX = ".ndjson.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path dir;
+    private final int blockRows;
+    private final ToLongFunction<String> idOf;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param idOf extracts the id from an archived line
+     */
+    public SegmentArchive(Path dir, int blockRows, ToLongFunction<String> idOf) {
+        this.dir = dir;
+        this.blockRows = blockRows;
+        this.idOf = idOf;
+        try {
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> indexes = Files.newDirectoryStream(dir, "*" + INDEX_SUFFIX)) {
+                for (Path index : indexes) {
+                    segments.add(readSegment(index));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Error opening archive " + dir, ex);
+        }
+    }
+
+    /**
+     * Starts a new segment. Its lines become visible only after {@link Writer#commit()}; closing
+     * an uncommitted writer discards them.
+     */
+    public Writer newSegment() {
+        return new Writer();
+    }
+
+    /**
+     * Returns the archived line with the given id, if any.
+     */
+    public Optional<String> find(long id) {
+        for (Segment segment : segments) {
+            if (id < segment.firstId() || id > segment.lastId()) {
+                continue;
+            }
+            Block block = segment.blockOf(id);
+            if (block == null) {
+                continue;
+            }
+            for (String line : readBlock(segment.data(), block)) {
+                if (idOf.applyAsLong(line) == id) {
+                    return Optional.of(line);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Highest archived id, 0 when the archive is empty.
+     */
+    public long lastId() {
+        long lastId = 0;
+        for (Segment segment : segments) {
+            lastId = Math.max(lastId, segment.lastId());
+        }
+        return lastId;
+    }
+
+    private List<String> readBlock(Path data, Block block) {
+        ByteBuffer buffer = ByteBuffer.allocate(block.length());
+        try (FileChannel channel = FileChannel.open(data, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, block.offset() + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of segment " + data);
+                }
+            }
+            List<String> lines = new ArrayList<>(blockRows);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(buffer.array())), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Error reading archive segment " + data, ex);
+        }
+    }
+
+    private static Segment readSegment(Path index) throws IOException {
+        List<Block> blocks = new ArrayList<>();
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(" ");
+            blocks.add(new Block(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                    Long.parseLong(fields[2]), Integer.parseInt(fields[3])));
+        }
+        String name = index.getFileName().toString();
+        Path data = index.resolveSibling(name.substring(0, name.length() - INDEX_SUFFIX.length()) + DATA_SUFFIX);
+        return new Segment(data, blocks);
+    }
+
+    private static String segmentName(long firstId, long lastId) {
+        return String.format("segment-%019d-%019d", firstId, lastId);
+    }
+
+    /**
+     * Writes one segment. Lines must be appended in ascending id order.
+     */
+    public class Writer implements Closeable {
+
+        private final Path tempData;
+        private final OutputStream out;
+        private final List<Block> blocks = new ArrayList<>();
+        private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+        private GZIPOutputStream blockOut;
+        private long blockFirstId;
+        private long lastId = Long.MIN_VALUE;
+        private int blockLines;
+        private long offset;
+        private boolean committed;
+
+        private Writer() {
+            try {
+                tempData = Files.createTempFile(dir, "segment-", DATA_SUFFIX + TEMP_SUFFIX);
+                out = Files.newOutputStream(tempData);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Error creating archive segment in " + dir, ex);
+            }
+        }
+
+        public void append(long id, String line) {
+            if (id <= lastId) {
+                throw new IllegalArgumentException("Ids must be ascending: " + id + " after " + lastId);
+            }
+            try {
+                if (blockOut == null) {
+                    blockOut = new GZIPOutputStream(blockBytes);
+                    blockFirstId = id;
+                }
+                blockOut.write(line.getBytes(StandardCharsets.UTF_8));
+                blockOut.write('\n');
+                lastId = id;
+                if (++blockLines == blockRows) {
+                    flushBlock();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Error writing archive segment " + tempData, ex);
+            }
+        }
+
+        /**
+         * Publishes the segment: the data file is moved into place before its index, so a
+         * segment is only looked up once both are complete.
+         */
+        public void commit() {
+            try {
+                if (blockOut != null) {
+                    flushBlock();
+                }
+                out.close();
+                committed = true;
+                if (blocks.isEmpty()) {
+                    Files.delete(tempData);
+                    return;
+                }
+
+                String name = segmentName(blocks.get(0).firstId(), lastId);
+                Path data = dir.resolve(name + DATA_SUFFIX);
+                Path index = dir.resolve(name + INDEX_SUFFIX);
+                Path tempIndex = dir.resolve(name + INDEX_SUFFIX + TEMP_SUFFIX);
+
+                List<String> lines = new ArrayList<>(blocks.size());
+                for (Block block : blocks) {
+                    lines.add(block.firstId() + " " + block.lastId() + " " + block.offset() + " " + block.length());
+                }
+                Files.write(tempIndex, lines, StandardCharsets.UTF_8);
+                Files.move(tempData, data, StandardCopyOption.ATOMIC_MOVE);
+                Files.move(tempIndex, index, StandardCopyOption.ATOMIC_MOVE);
+                segments.add(new Segment(data, List.copyOf(blocks)));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Error committing archive segment " + tempData, ex);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (committed) {
+                return;
+            }
+            try {
+                out.close();
+                Files.deleteIfExists(tempData);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Error discarding archive segment " + tempData, ex);
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            blockOut.close();
+            int length = blockBytes.size();
+            blockBytes.writeTo(out);
+            blocks.add(new Block(blockFirstId, lastId, offset, length));
+            offset += length;
+            blockBytes.reset();
+            blockOut = null;
+            blockLines = 0;
+        }
+    }
+
+    private record Segment(Path data, List<Block> blocks) {
+
+        long firstId() {
+            return blocks.get(0).firstId();
+        }
+
+        long lastId() {
+            return blocks.get(blocks.size() - 1).lastId();
+        }
+
+        // Blocks are in ascending, non-overlapping id order
+        Block blockOf(long id) {
+            int low = 0;
+            int high = blocks.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                Block block = blocks.get(mid);
+                if (id < block.firstId()) {
+                    high = mid - 1;
+                } else if (id > block.lastId()) {
+                    low = mid + 1;
+                } else {
+                    return block;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Block(long firstId, long lastId, long offset, int length) {
+    }
+}
@@ -2,14 +2,20 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.config.SecurityConfig;
 import com.example.bankcards.controller.admin.AdminCardController;
+import com.example.bankcards.dto.SliceResponse;
+import com.example.bankcards.dto.card.CardBalanceResponse;
 import com.example.bankcards.dto.card.CardCreateRequest;
+import com.example.bankcards.dto.card.CardImportResponse;
+import com.example.bankcards.dto.card.CardImportRowError;
 import com.example.bankcards.dto.card.CardResponse;
 import com.example.bankcards.dto.card.CardStatusUpdateRequest;
 import com.example.bankcards.dto.card.CardUpdateRequest;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.security.CustomUserDetailsService;
 import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.service.BalanceSnapshotService;
 import com.example.bankcards.service.CardCommandService;
+import com.example.bankcards.service.CardImportService;
 import com.example.bankcards.service.CardQueryService;
 import com.example.bankcards.util.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,7 +28,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -62,6 +71,12 @@ class AdminCardControllerTest {
     @MockBean
     private CustomUserDetailsService userDetailsService;
 
+    @MockBean
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @MockBean
+    private CardImportService cardImportService;
+
     @MockBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -129,6 +144,31 @@ class AdminCardControllerTest {
                 .andExpect(jsonPath("$.balance").value(1000.00));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importCards_ReturnsReport() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "cards.csv", "text/csv",
+                "card_number,card_holder,expiry_date,cvv,user_id,initial_balance\n".getBytes());
+        when(cardImportService.importCards(any())).thenReturn(new CardImportResponse(
+                2, 1, 1, List.of(new CardImportRowError(3, "Invalid card number")), 10, 200.0));
+
+        mockMvc.perform(multipart("/api/v1/admin/cards/import").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].error").value("Invalid card number"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void importCards_ForbiddenForUser() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "cards.csv", "text/csv", new byte[0]);
+
+        mockMvc.perform(multipart("/api/v1/admin/cards/import").file(file).with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void createCard_ForbiddenForUser() throws Exception {
@@ -205,6 +245,27 @@ class AdminCardControllerTest {
                 .andExpect(jsonPath("$.isLast").value(true));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getAllCards_WithoutTotal_ReturnsSlice() throws Exception {
+        SliceResponse<CardResponse> slice = new SliceResponse<>(
+                new SliceImpl<>(List.of(cardResponse), PageRequest.of(2, 1), false), 1250L);
+
+        when(cardQueryService.getAllCardsSlice(any())).thenReturn(slice);
+
+        mockMvc.perform(get("/api/v1/admin/cards")
+                        .param("page", "2")
+                        .param("size", "1")
+                        .param("withTotal", "false")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.pageNumber").value(2))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.isFirst").value(false))
+                .andExpect(jsonPath("$.approximateTotalElements").value(1250));
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void getAllCards_ForbiddenForUser() throws Exception {
@@ -214,6 +275,23 @@ class AdminCardControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getBalanceAt_Success() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 12, 0);
+        when(balanceSnapshotService.getBalanceAt(1L, at))
+                .thenReturn(new CardBalanceResponse(1L, at, BigDecimal.valueOf(900), LocalDate.of(2026, 2, 28), 3));
+
+        mockMvc.perform(get("/api/v1/admin/cards/1/balance")
+                        .param("at", "2026-03-01T12:00:00")
+                        .with(csrf()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(900))
+                .andExpect(jsonPath("$.snapshotDate").value("2026-02-28"))
+                .andExpect(jsonPath("$.entriesScanned").value(3));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void updateCard_Success() throws Exception {
@@ -0,0 +1,78 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.config.SecurityConfig;
+import com.example.bankcards.controller.admin.AdminCardEventController;
+import com.example.bankcards.dto.event.CardEventResponse;
+import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.service.CardEventService;
+import com.example.bankcards.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminCardEventController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(SecurityConfig.class)
+class AdminCardEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CardEventService eventService;
+
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void findEvents_PassesPayloadFilters() throws Exception {
+        CardEventResponse event = new CardEventResponse(5L, 1L, "CARD_STATUS_CHANGED",
+                "{\"cardId\":1,\"newStatus\":\"BLOCKED\",\"reason\":\"lost\"}", 2L, LocalDateTime.now());
+        when(eventService.findEvents(isNull(), eq(1L),
+                argThat(fields -> "BLOCKED".equals(fields.get("newStatus")) && fields.get("reason") == null),
+                any()))
+                .thenReturn(new PageImpl<>(List.of(event)));
+
+        mockMvc.perform(get("/api/v1/admin/card-events")
+                        .param("cardId", "1")
+                        .param("newStatus", "BLOCKED"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].data.newStatus").value("BLOCKED"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void findEvents_ForbiddenForUser() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/card-events"))
+                .andExpect(status().isForbidden());
+    }
+}
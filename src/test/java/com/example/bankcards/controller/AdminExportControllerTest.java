@@ -0,0 +1,106 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.config.SecurityConfig;
+import com.example.bankcards.controller.admin.AdminExportController;
+import com.example.bankcards.dto.ExportFormat;
+import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.service.ExportService;
+import com.example.bankcards.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(SecurityConfig.class)
+class AdminExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExportService exportService;
+
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportCards_StreamsNdjsonByDefault() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class)
+                    .write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportCards(eq(ExportFormat.NDJSON), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/admin/export/cards"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"cards.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportTransfers_StreamsCsv() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("id\n7\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportTransfers(eq(ExportFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/admin/export/transfers").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transfers.csv\""))
+                .andExpect(content().string("id\n7\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportCards_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/export/cards").param("format", "XML"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'XML' for parameter format"));
+
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void exportCards_ForbiddenForUser() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/export/cards"))
+                .andExpect(status().isForbidden());
+    }
+}
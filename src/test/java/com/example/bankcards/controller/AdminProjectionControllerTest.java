@@ -0,0 +1,72 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.config.SecurityConfig;
+import com.example.bankcards.controller.admin.AdminProjectionController;
+import com.example.bankcards.dto.event.ReplayReport;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.service.CardEventReplayService;
+import com.example.bankcards.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminProjectionController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(SecurityConfig.class)
+class AdminProjectionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CardEventReplayService replayService;
+
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rebuild_ReturnsReport() throws Exception {
+        when(replayService.rebuild("card-status-counts"))
+                .thenReturn(new ReplayReport("card-status-counts", 4, 1200, 300, 4000.0));
+
+        mockMvc.perform(post("/api/v1/admin/projections/card-status-counts/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projection").value("card-status-counts"))
+                .andExpect(jsonPath("$.events").value(1200))
+                .andExpect(jsonPath("$.eventsPerSecond").value(4000.0));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void resume_UnknownProjection_ReturnsNotFound() throws Exception {
+        when(replayService.resume("unknown")).thenThrow(new ResourceNotFoundException("Projection not found: unknown"));
+
+        mockMvc.perform(post("/api/v1/admin/projections/unknown/resume"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void rebuild_ForbiddenForUser() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/projections/card-status-counts/rebuild"))
+                .andExpect(status().isForbidden());
+    }
+}
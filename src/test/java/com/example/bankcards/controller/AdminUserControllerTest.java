@@ -2,6 +2,7 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.config.SecurityConfig;
 import com.example.bankcards.controller.admin.AdminUserController;
+import com.example.bankcards.dto.SliceResponse;
 import com.example.bankcards.dto.user.UserResponse;
 import com.example.bankcards.dto.user.UserUpdateRequest;
 import com.example.bankcards.entity.User;
@@ -20,6 +21,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -109,6 +111,23 @@ class AdminUserControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getAllUsers_WithoutTotal_ReturnsSlice() throws Exception {
+        SliceResponse<UserResponse> slice = new SliceResponse<>(
+                new SliceImpl<>(List.of(userResponse), PageRequest.of(0, 10), false), null);
+
+        when(userService.getAllUsersSlice(any())).thenReturn(slice);
+
+        mockMvc.perform(get("/api/v1/admin/users")
+                        .param("withTotal", "false")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.approximateTotalElements").isEmpty());
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void getAllUsers_ForbiddenForUser() throws Exception {
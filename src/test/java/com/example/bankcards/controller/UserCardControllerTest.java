@@ -2,6 +2,7 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.config.SecurityConfig;
 import com.example.bankcards.controller.user.UserCardController;
+import com.example.bankcards.dto.SliceResponse;
 import com.example.bankcards.dto.card.CardCreateRequest;
 import com.example.bankcards.dto.card.CardResponse;
 import com.example.bankcards.dto.card.CardStatusUpdateRequest;
@@ -23,6 +24,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -33,6 +35,8 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -129,6 +133,27 @@ class UserCardControllerTest {
                 .andExpect(jsonPath("$.size").value(10));
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void getMyCards_WithoutTotal_ReturnsSlice() throws Exception {
+        SliceResponse<CardResponse> slice = new SliceResponse<>(
+                new SliceImpl<>(List.of(cardResponse), PageRequest.of(0, 1), true), 3L);
+
+        when(cardQueryService.getUserCardsSlice(anyLong(), any())).thenReturn(slice);
+
+        mockMvc.perform(get("/api/v1/user/cards")
+                        .param("size", "1")
+                        .param("withTotal", "false")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.approximateTotalElements").value(3))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(cardQueryService, never()).getUserCards(anyLong(), any());
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void blockCard_Success() throws Exception {
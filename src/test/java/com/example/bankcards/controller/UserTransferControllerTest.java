@@ -1,15 +1,24 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.config.SecurityConfig;
+import com.example.bankcards.dto.CursorPageResponse;
+import com.example.bankcards.dto.SliceResponse;
 import com.example.bankcards.controller.user.UserTransferController;
+import com.example.bankcards.dto.transfer.BatchTransferItemResult;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
+import com.example.bankcards.dto.transfer.TransferPeriod;
 import com.example.bankcards.dto.transfer.TransferRequest;
 import com.example.bankcards.dto.transfer.TransferResponse;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
 import com.example.bankcards.security.CustomUserDetailsService;
 import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.contracts.TransferServiceInterface;
 import com.example.bankcards.util.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +29,11 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -31,6 +44,8 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -93,10 +108,15 @@ class UserTransferControllerTest {
         when(userDetailsService.loadUserEntityByUsername(anyString())).thenReturn(testUser);
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void executeTransfer_Success() throws Exception {
-        when(transferService.executeTransfer(any(TransferRequest.class), anyLong()))
+        when(transferService.executeTransfer(any(TransferRequest.class), anyLong(), any()))
                 .thenReturn(transferResponse);
 
         mockMvc.perform(post("/api/v1/user/transfers")
@@ -114,6 +134,54 @@ class UserTransferControllerTest {
                 .andExpect(jsonPath("$.toCardNumberMasked").value("**** **** **** 5678"));
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void executeTransfer_PassesIdempotencyKey() throws Exception {
+        when(transferService.executeTransfer(any(TransferRequest.class), anyLong(), eq("key-1")))
+                .thenReturn(transferResponse);
+
+        mockMvc.perform(post("/api/v1/user/transfers")
+                        .with(csrf())
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(transferService).executeTransfer(any(TransferRequest.class), eq(1L), eq("key-1"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void executeTransfer_ReusedIdempotencyKey() throws Exception {
+        when(transferService.executeTransfer(any(TransferRequest.class), anyLong(), eq("key-1")))
+                .thenThrow(new IdempotencyKeyReusedException("key-1"));
+
+        mockMvc.perform(post("/api/v1/user/transfers")
+                        .with(csrf())
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void executeTransfer_UserIdFromPrincipal() throws Exception {
+        UserPrincipal principal = new UserPrincipal(7L, "cached", User.Role.USER, true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(transferService.executeTransfer(any(TransferRequest.class), eq(7L), any()))
+                .thenReturn(transferResponse);
+
+        mockMvc.perform(post("/api/v1/user/transfers")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isCreated());
+
+        verify(userDetailsService, never()).loadUserEntityByUsername(anyString());
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void executeTransfer_MissingFromCardId() throws Exception {
@@ -189,7 +257,7 @@ class UserTransferControllerTest {
         List<TransferResponse> transfers = Collections.singletonList(transferResponse);
         Page<TransferResponse> page = new PageImpl<>(transfers, PageRequest.of(0, 10), 1);
 
-        when(transferService.getUserTransfers(anyLong(), any())).thenReturn(page);
+        when(transferService.getUserTransfers(anyLong(), eq(TransferPeriod.ALL), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/v1/user/transfers")
                         .param("page", "0")
@@ -210,7 +278,7 @@ class UserTransferControllerTest {
         List<TransferResponse> transfers = Collections.singletonList(transferResponse);
         Page<TransferResponse> page = new PageImpl<>(transfers, PageRequest.of(1, 20), 50);
 
-        when(transferService.getUserTransfers(anyLong(), any())).thenReturn(page);
+        when(transferService.getUserTransfers(anyLong(), eq(TransferPeriod.ALL), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/v1/user/transfers")
                         .param("page", "1")
@@ -223,6 +291,26 @@ class UserTransferControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(50));
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void getMyTransfers_WithoutTotal_ReturnsSlice() throws Exception {
+        SliceResponse<TransferResponse> slice = new SliceResponse<>(
+                new SliceImpl<>(List.of(transferResponse), PageRequest.of(0, 10), true), 57L);
+
+        when(transferService.getUserTransfersSlice(anyLong(), eq(TransferPeriod.ALL), any(Pageable.class)))
+                .thenReturn(slice);
+
+        mockMvc.perform(get("/api/v1/user/transfers")
+                        .param("withTotal", "false")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.approximateTotalElements").value(57));
+
+        verify(transferService, never()).getUserTransfers(anyLong(), any(TransferPeriod.class), any(Pageable.class));
+    }
+
     @Test
     @WithAnonymousUser
     void executeTransfer_Unauthorized() throws Exception {
@@ -260,7 +348,7 @@ class UserTransferControllerTest {
     void executeTransfer_LargeAmount() throws Exception {
         transferRequest.setAmount(new BigDecimal("999999999.99"));
 
-        when(transferService.executeTransfer(any(TransferRequest.class), anyLong()))
+        when(transferService.executeTransfer(any(TransferRequest.class), anyLong(), any()))
                 .thenReturn(transferResponse);
 
         mockMvc.perform(post("/api/v1/user/transfers")
@@ -270,4 +358,99 @@ class UserTransferControllerTest {
                 .andDo(print())
                 .andExpect(status().isCreated());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void executeTransfers_Batch_Success() throws Exception {
+        BatchTransferRequest batchRequest = new BatchTransferRequest(List.of(transferRequest, transferRequest), false);
+        BatchTransferResponse batchResponse = new BatchTransferResponse(
+                List.of(
+                        BatchTransferItemResult.completed(0, transferResponse),
+                        BatchTransferItemResult.rejected(1, "Insufficient balance")
+                ),
+                1,
+                1
+        );
+
+        when(transferService.executeTransfers(any(BatchTransferRequest.class), anyLong()))
+                .thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/v1/user/transfers/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.results[0].transfer.id").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].error").value("Insufficient balance"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void executeTransfers_Batch_EmptyList() throws Exception {
+        BatchTransferRequest batchRequest = new BatchTransferRequest(Collections.emptyList(), true);
+
+        mockMvc.perform(post("/api/v1/user/transfers/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.transfers").value("At least one transfer is required"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void executeTransfers_Batch_InvalidItem() throws Exception {
+        transferRequest.setAmount(null);
+        BatchTransferRequest batchRequest = new BatchTransferRequest(List.of(transferRequest), true);
+
+        mockMvc.perform(post("/api/v1/user/transfers/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['transfers[0].amount']").value("Amount is required"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getMyTransfersByCursor_Success() throws Exception {
+        when(transferService.getUserTransfers(eq(1L), isNull(), eq(TransferPeriod.ALL), eq("abc"), eq(20)))
+                .thenReturn(new CursorPageResponse<>(List.of(transferResponse), 20, "def", true));
+
+        mockMvc.perform(get("/api/v1/user/transfers/cursor")
+                        .param("cursor", "abc")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getMyTransfersByCursor_WithPeriod() throws Exception {
+        TransferPeriod period = new TransferPeriod(LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 2, 1, 0, 0));
+        when(transferService.getUserTransfers(eq(1L), eq(5L), eq(period), isNull(), eq(10)))
+                .thenReturn(new CursorPageResponse<>(List.of(transferResponse), 10, null, false));
+
+        mockMvc.perform(get("/api/v1/user/transfers/cursor")
+                        .param("cardId", "5")
+                        .param("from", "2026-01-01T00:00:00")
+                        .param("to", "2026-02-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        mockMvc.perform(get("/api/v1/user/transfers/cursor")
+                        .param("from", "2026-02-01T00:00:00")
+                        .param("to", "2026-01-01T00:00:00"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil(
+            "mySecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLongForHS256Algorithm", 86400000L);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = jwtUtil.generateToken("testuser", Map.of("userId", 1L, "role", "USER"));
+        when(userDetailsService.loadPrincipalByUsername("testuser"))
+                .thenReturn(new UserPrincipal(1L, "testuser", User.Role.USER, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_AuthenticatesWithPrincipal() throws Exception {
+        doFilter("Bearer " + token);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(1L, ((UserPrincipal) authentication.getPrincipal()).getId());
+        assertTrue(authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+    }
+
+    @Test
+    void trustedClaims_AuthenticateWithoutLookup() throws Exception {
+        ReflectionTestUtils.setField(filter, "trustClaims", true);
+
+        doFilter("Bearer " + token);
+
+        assertEquals(1L, ((UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId());
+        verify(userDetailsService, never()).loadPrincipalByUsername(anyString());
+    }
+
+    @Test
+    void disabledUser_NotAuthenticated() throws Exception {
+        when(userDetailsService.loadPrincipalByUsername("testuser"))
+                .thenReturn(new UserPrincipal(1L, "testuser", User.Role.USER, false));
+
+        doFilter("Bearer " + token);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void tamperedToken_NotAuthenticated() throws Exception {
+        doFilter("Bearer " + token.substring(0, token.length() - 2) + "xx");
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    /**
+     * Times the default path (principal lookup, mocked here) and the trusted-claims path. Only
+     * runs with {@code -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void filter_Throughput() throws Exception {
+        measure("principal lookup", false);
+        measure("trusted claims", true);
+    }
+
+    private void measure(String label, boolean trustClaims) throws Exception {
+        ReflectionTestUtils.setField(filter, "trustClaims", trustClaims);
+        for (int i = 0; i < 20_000; i++) {
+            doFilter("Bearer " + token);
+            SecurityContextHolder.clearContext();
+        }
+
+        int requests = 50_000;
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            doFilter("Bearer " + token);
+            SecurityContextHolder.clearContext();
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        System.out.printf("JwtAuthenticationFilter (%s): %d authenticated requests in %.2fs (%.0f requests/s)%n",
+                label, requests, seconds, requests / seconds);
+
+        doFilter("Bearer " + token);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    private void doFilter(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
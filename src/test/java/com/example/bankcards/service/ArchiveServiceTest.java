@@ -0,0 +1,189 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.TransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ReplayNotPossibleException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.projection.CardStatusCountProjection;
+import com.example.bankcards.repository.CardEventBatchRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferBatchRepository;
+import com.example.bankcards.service.contracts.ArchiveServiceInterface;
+import com.example.bankcards.service.contracts.CardEventReplayServiceInterface;
+import com.example.bankcards.service.contracts.TransferServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archiving against a real database, with the outbox relay disabled as by default. Rows are
+ * back-dated to 1985 so that only the rows of this test are past the 1990 cutoff.
+ */
+@SpringBootTest(properties = {
+        "app.archive.dir=target/test-archive",
+        "app.archive.segment-rows=50",
+        "app.archive.block-rows=8",
+        "app.archive.fetch-size=10",
+        "app.archive.delete-batch-size=20"
+})
+@Import(TestFixture.class)
+class ArchiveServiceTest {
+
+    private static final LocalDateTime OLD = LocalDateTime.of(1985, 1, 1, 0, 0);
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(1990, 1, 1, 0, 0);
+
+    @Autowired
+    private ArchiveServiceInterface archiveService;
+
+    @Autowired
+    private TransferServiceInterface transferService;
+
+    @Autowired
+    private CardEventReplayServiceInterface replayService;
+
+    @Autowired
+    private TransferBatchRepository transferBatchRepository;
+
+    @Autowired
+    private CardEventBatchRepository cardEventBatchRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Card cardA;
+    private Card cardB;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("archive");
+
+        cardA = cardRepository.findById(fixture.createCard(user).getId()).orElseThrow();
+        cardB = cardRepository.findById(fixture.createCard(user).getId()).orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void oldTransfers_AreArchivedDeletedAndStillReadable() {
+        List<Transfer> old = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            old.add(transfer(OLD.plusMinutes(i), "old " + i));
+        }
+        Transfer recent = transfer(LocalDateTime.now(), "recent");
+        List<Transfer> all = new ArrayList<>(old);
+        all.add(recent);
+        transferBatchRepository.insertAll(all);
+
+        assertEquals(120, archiveService.archiveTransfers(CUTOFF));
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transfers WHERE user_id = ?", Integer.class, user.getId()));
+        assertEquals(0, archiveService.archiveTransfers(CUTOFF));
+
+        for (Transfer transfer : List.of(old.get(0), old.get(57), old.get(119))) {
+            TransferResponse response = transferService.getTransferById(transfer.getId(), user.getId());
+            assertEquals(transfer.getDescription(), response.getDescription());
+            assertEquals(transfer.getCreatedAt(), response.getCreatedAt());
+            assertEquals(0, transfer.getAmount().compareTo(response.getAmount()));
+            assertTrue(response.getFromCardNumberMasked().endsWith(cardA.getCardNumberLastFour()));
+        }
+        assertEquals("recent", transferService.getTransferById(recent.getId(), user.getId()).getDescription());
+        assertThrows(ResourceNotFoundException.class,
+                () -> transferService.getTransferById(Long.MAX_VALUE, user.getId()));
+    }
+
+    @Test
+    void oldCardEvents_WithoutRelay_AreArchivedWhetherDispatchedOrNot() {
+        insertOldCardEvents(30);
+        jdbcTemplate.update("UPDATE card_events SET dispatched_at = timestamp WHERE user_id = ? AND id IN " +
+                "(SELECT id FROM card_events WHERE user_id = ? ORDER BY id LIMIT 10)", user.getId(), user.getId());
+
+        assertEquals(30, archiveService.archiveCardEvents(CUTOFF));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM card_events WHERE user_id = ? AND timestamp < ?",
+                Integer.class, user.getId(), CUTOFF));
+
+        // A rebuild would replay the table only and miss the archived events
+        assertTrue(archiveService.lastArchivedCardEventId() > 0);
+        assertThrows(ReplayNotPossibleException.class,
+                () -> replayService.rebuild(CardStatusCountProjection.NAME));
+    }
+
+    /**
+     * The relay is enabled without threads, so the events stay as dispatched as the test leaves them.
+     */
+    @Nested
+    @TestPropertySource(properties = {
+            "app.outbox.relay.enabled=true",
+            "app.outbox.relay.threads=0"
+    })
+    class WithRelay {
+
+        @Autowired
+        private ArchiveServiceInterface relayArchiveService;
+
+        @Test
+        void oldDispatchedCardEvents_AreArchivedAndDeleted() {
+            insertOldCardEvents(30);
+            jdbcTemplate.update("UPDATE card_events SET dispatched_at = timestamp WHERE user_id = ?", user.getId());
+            cardEventBatchRepository.insertAll(List.of(new CardEvent(null, cardA.getId(), "CARD_BLOCKED",
+                    "{\"reason\":\"not dispatched\"}", user.getId(), OLD, null)));
+
+            assertEquals(30, relayArchiveService.archiveCardEvents(CUTOFF));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM card_events WHERE user_id = ? AND timestamp < ? AND dispatched_at IS NULL",
+                    Integer.class, user.getId(), CUTOFF));
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM card_events WHERE user_id = ? AND timestamp < ? AND dispatched_at IS NOT NULL",
+                    Integer.class, user.getId(), CUTOFF));
+        }
+    }
+
+    private void insertOldCardEvents(int count) {
+        List<CardEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new CardEvent(null, cardA.getId(), "CARD_BLOCKED", "{\"reason\":\"archive " + i + "\"}",
+                    user.getId(), OLD.plusMinutes(i), null));
+        }
+        cardEventBatchRepository.insertAll(events);
+    }
+
+    private Transfer transfer(LocalDateTime createdAt, String description) {
+        Transfer transfer = new Transfer();
+        transfer.setFromCard(cardA);
+        transfer.setToCard(cardB);
+        transfer.setAmount(BigDecimal.TEN);
+        transfer.setStatus(Transfer.TransferStatus.COMPLETED);
+        transfer.setDescription(description);
+        transfer.setUserId(user.getId());
+        transfer.setCreatedAt(createdAt);
+        return transfer;
+    }
+}
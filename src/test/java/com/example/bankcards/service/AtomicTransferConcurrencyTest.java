@@ -0,0 +1,32 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.exception.InsufficientBalanceException;
+import com.example.bankcards.exception.UnauthorizedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the crossing transfer scenario with the conditional UPDATE execution mode.
+ */
+@SpringBootTest(properties = "app.transfer.mode=ATOMIC")
+class AtomicTransferConcurrencyTest extends TransferConcurrencyTest {
+
+    @Test
+    void atomicTransfer_InsufficientBalance() {
+        TransferRequest request = new TransferRequest(cardA, cardB, INITIAL_BALANCE.add(BigDecimal.ONE), null);
+
+        assertThrows(InsufficientBalanceException.class, () -> transferService.executeTransfer(request, user.getId()));
+    }
+
+    @Test
+    void atomicTransfer_ForeignCard() {
+        TransferRequest request = new TransferRequest(cardA, cardB, BigDecimal.ONE, null);
+
+        assertThrows(UnauthorizedException.class, () -> transferService.executeTransfer(request, -1L));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardBalanceResponse;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.service.contracts.BalanceSnapshotServiceInterface;
+import com.example.bankcards.service.contracts.TransferServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Snapshots and historical balances against a real database. Ledger entries are moved two days
+ * back to simulate history.
+ */
+@SpringBootTest
+@Import(TestFixture.class)
+class BalanceSnapshotServiceTest {
+
+    @Autowired
+    private BalanceSnapshotServiceInterface snapshotService;
+
+    @Autowired
+    private TransferServiceInterface transferService;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Long cardA;
+    private Long cardB;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("snapshot");
+
+        cardA = fixture.createCard(user).getId();
+        cardB = fixture.createCard(user).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void balanceAt_UsesNearestSnapshotPlusLaterEntries() {
+        transferService.executeTransfer(new TransferRequest(cardA, cardB, BigDecimal.valueOf(100), "old"), user.getId());
+        jdbcTemplate.update("UPDATE ledger_entries SET created_at = created_at - INTERVAL '2 days' WHERE card_id IN (?, ?)",
+                cardA, cardB);
+
+        LocalDate snapshotDate = LocalDate.now().minusDays(2);
+        assertTrue(snapshotService.takeSnapshots(snapshotDate) >= 2);
+        assertEquals(0, snapshotService.takeSnapshots(snapshotDate));
+
+        transferService.executeTransfer(new TransferRequest(cardA, cardB, BigDecimal.valueOf(50), "new"), user.getId());
+
+        CardBalanceResponse yesterday = snapshotService.getBalanceAt(cardA, LocalDateTime.now().minusDays(1));
+        assertEquals(0, BigDecimal.valueOf(900).compareTo(yesterday.getBalance()));
+        assertEquals(snapshotDate, yesterday.getSnapshotDate());
+        assertEquals(0, yesterday.getEntriesScanned());
+
+        CardBalanceResponse now = snapshotService.getBalanceAt(cardA, LocalDateTime.now());
+        assertEquals(0, BigDecimal.valueOf(850).compareTo(now.getBalance()));
+        assertEquals(1, now.getEntriesScanned());
+
+        CardBalanceResponse target = snapshotService.getBalanceAt(cardB, LocalDateTime.now());
+        assertEquals(0, BigDecimal.valueOf(1150).compareTo(target.getBalance()));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> snapshotService.getBalanceAt(cardA, LocalDateTime.now().minusDays(3)));
+    }
+
+    @Test
+    void balanceAt_WithoutSnapshotReplaysLedger() {
+        transferService.executeTransfer(new TransferRequest(cardA, cardB, BigDecimal.valueOf(100), "only"), user.getId());
+
+        CardBalanceResponse response = snapshotService.getBalanceAt(cardA, LocalDateTime.now());
+
+        assertEquals(0, BigDecimal.valueOf(900).compareTo(response.getBalance()));
+        assertNull(response.getSnapshotDate());
+        assertEquals(2, response.getEntriesScanned());
+    }
+
+    @Test
+    void balanceAt_BeforeOpeningEntryHasNoHistory() {
+        // Cards that predate the ledger have an opening entry dated when the ledger was introduced
+        LocalDateTime ledgerStart = LocalDateTime.now().minusDays(1);
+        jdbcTemplate.update("UPDATE ledger_entries SET created_at = ? WHERE card_id = ? AND sequence = 1",
+                ledgerStart, cardA);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> snapshotService.getBalanceAt(cardA, ledgerStart.minusMinutes(1)));
+        CardBalanceResponse opening = snapshotService.getBalanceAt(cardA, ledgerStart);
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(opening.getBalance()));
+    }
+}
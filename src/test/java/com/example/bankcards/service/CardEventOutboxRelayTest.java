@@ -0,0 +1,139 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.repository.CardEventBatchRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several relay threads against a real database and checks that every event is
+ * delivered exactly once. The context is closed afterwards, so its relay stops dispatching
+ * the events of later test classes.
+ */
+@DirtiesContext
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=true",
+        "app.outbox.relay.threads=4",
+        "app.outbox.relay.batch-size=50",
+        "app.outbox.relay.poll-interval-ms=50"
+})
+class CardEventOutboxRelayTest {
+
+    @Autowired
+    private CardEventBatchRepository batchRepository;
+
+    @Autowired
+    private DeliveryRecorder recorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final long userId = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM card_events WHERE user_id = ?", userId);
+    }
+
+    @Test
+    void pendingEvents_AreDeliveredOnceAndMarkedDispatched() throws Exception {
+        List<CardEvent> events = new ArrayList<>();
+        for (long cardId = 1; cardId <= 1000; cardId++) {
+            events.add(event(cardId));
+        }
+        batchRepository.insertAll(events);
+
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        while (pendingEvents() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(0, pendingEvents());
+        Map<Long, AtomicInteger> deliveries = recorder.deliveriesFor(userId);
+        assertEquals(1000, deliveries.size());
+        assertTrue(deliveries.values().stream().allMatch(count -> count.get() == 1), "An event was delivered twice");
+    }
+
+    @Test
+    void fileSink_WritesOneJsonLinePerEvent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("events.ndjson");
+        FileEventSink sink = new FileEventSink(objectMapper, file.toString());
+        CardEvent first = event(1L);
+        first.setId(10L);
+        CardEvent second = event(2L);
+        second.setId(11L);
+
+        sink.publish(List.of(first));
+        sink.publish(List.of(second));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode line = objectMapper.readTree(lines.get(1));
+        assertEquals(11L, line.get("id").asLong());
+        assertEquals("CARD_DELETED", line.get("eventType").asText());
+        assertEquals(2L, line.get("data").get("cardId").asLong());
+    }
+
+    private CardEvent event(Long cardId) {
+        CardEvent event = new CardEvent();
+        event.setAggregateId(cardId);
+        event.setEventType("CARD_DELETED");
+        event.setEventData("{\"cardId\":" + cardId + "}");
+        event.setUserId(userId);
+        event.setTimestamp(LocalDateTime.now());
+        return event;
+    }
+
+    private int pendingEvents() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM card_events WHERE user_id = ? AND dispatched_at IS NULL", Integer.class, userId);
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        DeliveryRecorder deliveryRecorder() {
+            return new DeliveryRecorder();
+        }
+    }
+
+    static class DeliveryRecorder {
+        private final Map<Long, Map<Long, AtomicInteger>> deliveries = new ConcurrentHashMap<>();
+
+        @EventListener
+        void on(CardEvent event) {
+            deliveries.computeIfAbsent(event.getUserId(), id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(event.getId(), id -> new AtomicInteger())
+                    .incrementAndGet();
+        }
+
+        Map<Long, AtomicInteger> deliveriesFor(Long userId) {
+            return deliveries.getOrDefault(userId, Map.of());
+        }
+    }
+}
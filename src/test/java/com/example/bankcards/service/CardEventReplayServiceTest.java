@@ -0,0 +1,188 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardStatusUpdateRequest;
+import com.example.bankcards.dto.event.ReplayReport;
+import com.example.bankcards.dto.event.ReplayedCardEvent;
+import com.example.bankcards.entity.CardEvent;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.projection.CardStatusCountProjection;
+import com.example.bankcards.projection.CardStatusHistoryProjection;
+import com.example.bankcards.repository.CardEventBatchRepository;
+import com.example.bankcards.repository.CardEventReplayRepository;
+import com.example.bankcards.service.contracts.CardCommandServiceInterface;
+import com.example.bankcards.service.contracts.CardEventReplayServiceInterface;
+import com.example.bankcards.service.contracts.CardProjection;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays real card events with four parallel ranges and small batches. The safety lag is off so
+ * that events are replayed as soon as they are written.
+ */
+@SpringBootTest(properties = {
+        "app.replay.parallelism=4",
+        "app.replay.batch-size=5",
+        "app.replay.fetch-size=7",
+        "app.replay.safety-lag-seconds=0"
+})
+@Import(TestFixture.class)
+class CardEventReplayServiceTest {
+
+    @Autowired
+    private CardEventReplayServiceInterface replayService;
+
+    @Autowired
+    private CardStatusCountProjection countProjection;
+
+    @Autowired
+    private CardStatusHistoryProjection historyProjection;
+
+    @Autowired
+    private FlakyProjection flakyProjection;
+
+    @Autowired
+    private CardCommandServiceInterface cardCommandService;
+
+    @Autowired
+    private CardEventBatchRepository cardEventBatchRepository;
+
+    @Autowired
+    private CardEventReplayRepository replayRepository;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("replay");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void rebuild_ProjectsCountsAndHistory_ResumeCatchesUp() {
+        Long kept = fixture.createCard(user).getId();
+        Long blocked = fixture.createCard(user).getId();
+        Long deleted = fixture.createCard(user).getId();
+        cardCommandService.updateCardStatus(blocked, new CardStatusUpdateRequest("BLOCKED", "lost"), user.getId());
+        cardCommandService.deleteCard(deleted, user.getId());
+
+        ReplayReport report = replayService.rebuild(CardStatusCountProjection.NAME);
+        replayService.rebuild(CardStatusHistoryProjection.NAME);
+
+        assertTrue(report.events() >= 5);
+        assertTrue(report.ranges() >= 1 && report.ranges() <= 4);
+        assertTrue(report.eventsPerSecond() > 0);
+        assertEquals(Map.of("ACTIVE", 1, "BLOCKED", 1), countProjection.countsFor(user.getId()));
+        assertEquals(List.of("ACTIVE"), historyProjection.historyOf(kept));
+        assertEquals(List.of("ACTIVE", "BLOCKED"), historyProjection.historyOf(blocked));
+        assertEquals(List.of("ACTIVE", "DELETED"), historyProjection.historyOf(deleted));
+
+        fixture.createCard(user);
+        ReplayReport resumed = replayService.resume(CardStatusCountProjection.NAME);
+
+        assertTrue(resumed.events() >= 1);
+        assertEquals(Map.of("ACTIVE", 2, "BLOCKED", 1), countProjection.countsFor(user.getId()));
+    }
+
+    @Test
+    void rebuildStoppedByFailure_ResumesWithoutApplyingEventsTwice() {
+        for (int i = 0; i < 20; i++) {
+            fixture.createCard(user);
+        }
+        List<Long> eventIds = jdbcTemplate.queryForList(
+                "SELECT id FROM card_events WHERE user_id = ? ORDER BY id", Long.class, user.getId());
+        flakyProjection.failOn = eventIds.get(12);
+
+        assertThrows(IllegalStateException.class, () -> replayService.rebuild(FlakyProjection.NAME));
+        assertNull(flakyProjection.applied.get(eventIds.get(12)));
+
+        replayService.resume(FlakyProjection.NAME);
+
+        for (Long eventId : eventIds) {
+            AtomicInteger applied = flakyProjection.applied.get(eventId);
+            assertNotNull(applied, () -> "Event " + eventId + " was not applied");
+            assertEquals(1, applied.get(), () -> "Event " + eventId + " was applied more than once");
+        }
+    }
+
+    @Test
+    void highWaterId_StopsBeforeTheFirstRecentEvent() {
+        Long cardId = fixture.createCard(user).getId();
+        LocalDateTime now = LocalDateTime.now();
+        // A recent event followed by an older one, as when the transaction of the recent one commits late
+        cardEventBatchRepository.insertAll(List.of(
+                new CardEvent(null, cardId, "CARD_BLOCKED", "{}", user.getId(), now, null),
+                new CardEvent(null, cardId, "CARD_BLOCKED", "{}", user.getId(), now.minusMinutes(5), null)));
+        List<Long> eventIds = jdbcTemplate.queryForList(
+                "SELECT id FROM card_events WHERE user_id = ? AND event_type = 'CARD_BLOCKED' ORDER BY id",
+                Long.class, user.getId());
+
+        assertTrue(replayRepository.findHighWaterId(now.minusMinutes(1)) < eventIds.get(0));
+        assertTrue(replayRepository.findHighWaterId(now.plusMinutes(1)) >= eventIds.get(1));
+    }
+
+    /**
+     * Counts how often each event was applied and fails once on a chosen event.
+     */
+    static class FlakyProjection implements CardProjection {
+
+        static final String NAME = "test-flaky";
+
+        final Map<Long, AtomicInteger> applied = new ConcurrentHashMap<>();
+        volatile Long failOn;
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public void reset() {
+            applied.clear();
+        }
+
+        @Override
+        public void apply(List<ReplayedCardEvent> events) {
+            Long failure = failOn;
+            if (failure != null && events.stream().anyMatch(event -> event.id().equals(failure))) {
+                failOn = null;
+                throw new IllegalStateException("Simulated crash");
+            }
+            events.forEach(event -> applied.computeIfAbsent(event.id(), id -> new AtomicInteger()).incrementAndGet());
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        FlakyProjection flakyProjection() {
+            return new FlakyProjection();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.event.CardEventResponse;
+import com.example.bankcards.service.contracts.CardEventServiceInterface;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Typed payloads stored as JSONB and filtered by payload fields against a real database.
+ */
+@SpringBootTest
+class CardEventServiceTest {
+
+    @Autowired
+    private CardEventServiceInterface eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<CardEventWriter> eventWriter;
+
+    private final long userId = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    private final long cardId = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM card_events WHERE user_id = ?", userId);
+    }
+
+    @Test
+    void syncMode_StartsNoWriter() {
+        assertNull(eventWriter.getIfAvailable());
+    }
+
+    @Test
+    void asyncMode_IsRefusedWithOutboxRelay() {
+        assertThrows(IllegalStateException.class, () -> new CardEventService(null, null, objectMapper,
+                eventWriter, CardEventService.WriteMode.ASYNC, true));
+    }
+
+    @Test
+    void statusChangedEvents_CanBeFilteredByPayloadFields() throws Exception {
+        String reason = "lost " + UUID.randomUUID();
+        eventService.recordCardStatusChangedEvent(cardId, "ACTIVE", "BLOCKED", userId, reason);
+        eventService.recordCardStatusChangedEvent(cardId, "BLOCKED", "ACTIVE", userId, reason);
+        eventService.recordCardDeletedEvent(cardId, userId);
+
+        String newStatus = jdbcTemplate.queryForObject(
+                "SELECT event_data ->> 'newStatus' FROM card_events WHERE user_id = ? ORDER BY id LIMIT 1",
+                String.class, userId);
+        assertEquals("BLOCKED", newStatus);
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put("newStatus", "BLOCKED");
+        fields.put("reason", reason);
+        Page<CardEventResponse> blocked = eventService.findEvents(null, cardId, fields, PageRequest.of(0, 10));
+
+        assertEquals(1, blocked.getTotalElements());
+        CardEventResponse event = blocked.getContent().get(0);
+        assertEquals("CARD_STATUS_CHANGED", event.getEventType());
+        JsonNode data = objectMapper.readTree(event.getData());
+        assertEquals("ACTIVE", data.get("oldStatus").asText());
+        assertEquals(cardId, data.get("cardId").asLong());
+
+        Page<CardEventResponse> all = eventService.findEvents(null, cardId, Map.of(), PageRequest.of(0, 10));
+        assertEquals(3, all.getTotalElements());
+        assertEquals("CARD_DELETED", all.getContent().get(0).getEventType());
+
+        Page<CardEventResponse> deleted = eventService.findEvents("CARD_DELETED", cardId, Map.of(), PageRequest.of(0, 10));
+        assertEquals(1, deleted.getTotalElements());
+        assertTrue(objectMapper.readTree(deleted.getContent().get(0).getData()).get("deletedAt").isTextual());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.service.contracts.CardEventServiceInterface;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Card events in ASYNC mode against a real database.
+ */
+@SpringBootTest(properties = "app.card-events.mode=ASYNC")
+class CardEventWriterTest {
+
+    @Autowired
+    private CardEventServiceInterface eventService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // card_events has no foreign keys, so a unique fake user keeps the rows of this test apart
+    private final long userId = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM card_events WHERE user_id = ?", userId);
+    }
+
+    @Test
+    void committedEvents_AreWrittenInBatches() throws Exception {
+        long flushesBefore = meterRegistry.timer("card.events.flush").count();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long cardId = 1; cardId <= 1200; cardId++) {
+                eventService.recordCardDeletedEvent(cardId, userId);
+            }
+            assertEquals(0, countEvents());
+        });
+
+        awaitEvents(1200);
+        // The timer records a flush only after its insert has committed
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (meterRegistry.timer("card.events.flush").count() - flushesBefore < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        long flushes = meterRegistry.timer("card.events.flush").count() - flushesBefore;
+        assertTrue(flushes >= 3 && flushes < 100, "Expected batched inserts, got " + flushes + " flushes");
+    }
+
+    @Test
+    void rolledBackEvents_AreNotWritten() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventService.recordCardStatusChangedEvent(1L, "ACTIVE", "BLOCKED", userId, "rolled back");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                eventService.recordCardStatusChangedEvent(1L, "ACTIVE", "BLOCKED", userId, "committed"));
+
+        awaitEvents(1);
+        Integer rolledBack = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM card_events WHERE user_id = ? AND event_data ->> 'reason' = 'rolled back'",
+                Integer.class, userId);
+        assertEquals(0, rolledBack);
+    }
+
+    private void awaitEvents(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (countEvents() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, countEvents());
+    }
+
+    private int countEvents() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card_events WHERE user_id = ?", Integer.class, userId);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Expiry sweeps against a real database with batches of two cards.
+ */
+@SpringBootTest(properties = "app.card-expiry.batch-size=2")
+@Import(TestFixture.class)
+class CardExpirySweeperTest {
+
+    @Autowired
+    private CardExpirySweeper sweeper;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("expiry");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void expireCards_ExpiresOnlyActiveCardsPastTheirDate() {
+        LocalDate today = LocalDate.now();
+        List<Long> expired = List.of(
+                createCard(today.minusDays(1), Card.CardStatus.ACTIVE),
+                createCard(today.minusMonths(2), Card.CardStatus.ACTIVE),
+                createCard(today.minusYears(1), Card.CardStatus.ACTIVE));
+        Long blocked = createCard(today.minusDays(1), Card.CardStatus.BLOCKED);
+        Long current = createCard(today, Card.CardStatus.ACTIVE);
+
+        assertTrue(sweeper.expireCards(today) >= 3);
+
+        for (Long cardId : expired) {
+            assertEquals(Card.CardStatus.EXPIRED, statusOf(cardId));
+        }
+        assertEquals(Card.CardStatus.BLOCKED, statusOf(blocked));
+        assertEquals(Card.CardStatus.ACTIVE, statusOf(current));
+        assertEquals(3, expiredEvents());
+
+        assertEquals(0, sweeper.expireCards(today));
+        assertEquals(3, expiredEvents());
+    }
+
+    @Test
+    void concurrentSweepers_ExpireEveryCardOnce() throws Exception {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 20; i++) {
+            createCard(today.minusDays(i + 1), Card.CardStatus.ACTIVE);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Callable<Integer>> sweeps = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                sweeps.add(() -> sweeper.expireCards(today));
+            }
+            int total = 0;
+            for (Future<Integer> sweep : executor.invokeAll(sweeps)) {
+                total += sweep.get();
+            }
+            assertTrue(total >= 20);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cards WHERE user_id = ? AND status <> ?",
+                Integer.class, user.getId(), Card.CardStatus.EXPIRED.ordinal()));
+        assertEquals(20, expiredEvents());
+    }
+
+    private Long createCard(LocalDate expiryDate, Card.CardStatus status) {
+        Long cardId = fixture.createCard(user).getId();
+        jdbcTemplate.update("UPDATE cards SET expiry_date = ?, status = ? WHERE id = ?",
+                expiryDate, status.ordinal(), cardId);
+        return cardId;
+    }
+
+    private Card.CardStatus statusOf(Long cardId) {
+        return Card.CardStatus.values()[jdbcTemplate.queryForObject(
+                "SELECT status FROM cards WHERE id = ?", Integer.class, cardId)];
+    }
+
+    private int expiredEvents() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM card_events WHERE user_id = ? AND event_type = 'CARD_STATUS_CHANGED' " +
+                "AND event_data ->> 'newStatus' = 'EXPIRED'", Integer.class, user.getId());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.card.CardCreateRequest;
+import com.example.bankcards.dto.card.CardImportResponse;
+import com.example.bankcards.dto.card.CardImportRowError;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.InvalidCardException;
+import com.example.bankcards.service.contracts.CardCommandServiceInterface;
+import com.example.bankcards.service.contracts.CardImportServiceInterface;
+import com.example.bankcards.support.TestCardNumbers;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CSV card imports against a real database, in chunks of three rows.
+ */
+@SpringBootTest(properties = "app.card-import.chunk-size=3")
+@Import(TestFixture.class)
+class CardImportServiceTest {
+
+    @Autowired
+    private CardImportServiceInterface importService;
+
+    @Autowired
+    private CardCommandServiceInterface cardCommandService;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("import");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void importCards_InsertsValidRowsAndReportsTheOthers() {
+        CardCreateRequest old = fixture.cardRequest(user);
+        old.setCardHolder("OLD CARD");
+        cardCommandService.createCard(old);
+        String existing = old.getCardNumber();
+        String repeated = TestCardNumbers.random();
+        String future = LocalDate.now().plusYears(2).toString();
+        String valid = TestCardNumbers.random();
+        String invalidLuhn = valid.substring(0, 15) + (char) ('0' + (valid.charAt(15) - '0' + 5) % 10);
+
+        String csv = String.join("\n",
+                CardImportService.HEADER,
+                row(TestCardNumbers.random(), "\"DOE, JOHN\"", future, "100.50"),
+                row(repeated, "JANE DOE", future, ""),
+                row(repeated, "JANE DOE", future, "1"),
+                "",
+                row(existing, "OLD CARD", future, "1"),
+                row(TestCardNumbers.random(), "PAST", LocalDate.now().minusDays(1).toString(), "1"),
+                TestCardNumbers.random() + ",NO USER," + future + ",123,-1,1",
+                "1234,SHORT," + future + ",123," + user.getId() + ",1",
+                "too,few,columns",
+                row(invalidLuhn, "BAD CHECK DIGIT", future, "1"),
+                row(TestCardNumbers.random(), "LAST", future, "5"));
+
+        CardImportResponse response = importService.importCards(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(10, response.getRows());
+        assertEquals(3, response.getImported());
+        assertEquals(7, response.getRejected());
+        assertTrue(response.getRowsPerSecond() > 0);
+        Map<Long, String> errors = response.getErrors().stream()
+                .collect(Collectors.toMap(CardImportRowError::getLine, CardImportRowError::getError));
+        assertEquals("Duplicate card number in file", errors.get(4L));
+        assertEquals("Card number already exists", errors.get(6L));
+        assertEquals("Card expiry date is in the past", errors.get(7L));
+        assertEquals("User not found with id: -1", errors.get(8L));
+        assertEquals("Card number must be 13 to 19 digits", errors.get(9L));
+        assertEquals("Expected 6 columns but found 3", errors.get(10L));
+        assertEquals("Invalid card number", errors.get(11L));
+
+        List<String> holders = jdbcTemplate.queryForList(
+                "SELECT card_holder FROM cards WHERE user_id = ? ORDER BY id", String.class, user.getId());
+        assertEquals(List.of("OLD CARD", "DOE, JOHN", "JANE DOE", "LAST"), holders);
+        assertEquals(0, new BigDecimal("100.50").compareTo(jdbcTemplate.queryForObject(
+                "SELECT l.balance_after FROM ledger_entries l JOIN cards c ON c.id = l.card_id " +
+                "WHERE c.user_id = ? AND c.card_holder = 'DOE, JOHN'", BigDecimal.class, user.getId())));
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM card_events WHERE user_id = ? AND event_type = 'CARD_CREATED'",
+                Integer.class, user.getId()));
+    }
+
+    @Test
+    void importCards_RejectsUnknownHeader() {
+        assertThrows(InvalidCardException.class, () -> importService.importCards(
+                new ByteArrayInputStream("number,holder\n".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private String row(String cardNumber, String holder, String expiryDate, String balance) {
+        return cardNumber + "," + holder + "," + expiryDate + ",123," + user.getId() + "," + balance;
+    }
+}
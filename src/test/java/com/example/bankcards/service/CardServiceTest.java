@@ -5,10 +5,12 @@ import com.example.bankcards.dto.card.CardResponse;
 import com.example.bankcards.dto.card.CardStatusUpdateRequest;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.DuplicateResourceException;
 import com.example.bankcards.exception.InvalidCardException;
 import com.example.bankcards.exception.UnauthorizedException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryBatchRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.util.CardMaskingUtil;
 import com.example.bankcards.util.EncryptionUtil;
@@ -20,10 +22,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -36,6 +40,9 @@ class CardServiceTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private LedgerEntryBatchRepository ledgerRepository;
+
     @MockBean
     private EncryptionUtil encryptionUtil;
 
@@ -65,6 +72,7 @@ class CardServiceTest {
         testCard = new Card();
         testCard.setId(1L);
         testCard.setCardNumberEncrypted("encrypted123");
+        testCard.setCardNumberLastFour("3456");
         testCard.setCardHolder("John Doe");
         testCard.setExpiryDate(LocalDate.now().plusYears(3));
         testCard.setStatus(Card.CardStatus.ACTIVE);
@@ -84,17 +92,18 @@ class CardServiceTest {
     void createCard_Success() {
         when(maskingUtil.isValidCardNumber(anyString())).thenReturn(true);
         when(encryptionUtil.encrypt(anyString())).thenReturn("encrypted");
-        when(cardRepository.existsByCardNumberEncrypted(anyString())).thenReturn(false);
+        when(cardRepository.existsByCardNumberHash(anyString())).thenReturn(false);
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(cardRepository.save(any(Card.class))).thenReturn(testCard);
-        when(encryptionUtil.decrypt(anyString())).thenReturn("1234567890123456");
         when(maskingUtil.maskCardNumber(anyString())).thenReturn("**** **** **** 3456");
 
         CardResponse response = cardCommandService.createCard(createRequest);
 
         assertNotNull(response);
         assertEquals("**** **** **** 3456", response.getCardNumberMasked());
-        verify(cardRepository, times(1)).save(any(Card.class));
+        verify(cardRepository, times(1)).save(argThat(card -> createRequest.getCardNumber().endsWith(card.getCardNumberLastFour())
+                && card.getCardNumberHash().length() == 64));
+        verify(encryptionUtil, never()).decrypt(anyString());
         verify(eventService, times(1)).recordCardCreatedEvent(any(Card.class), eq(1L));
     }
 
@@ -110,14 +119,14 @@ class CardServiceTest {
     @Test
     void createCard_DuplicateCardNumber() {
         when(maskingUtil.isValidCardNumber(anyString())).thenReturn(true);
-        when(encryptionUtil.encrypt(anyString())).thenReturn("encrypted");
-        when(cardRepository.existsByCardNumberEncrypted(anyString())).thenReturn(true);
+        when(cardRepository.existsByCardNumberHash(anyString())).thenReturn(true);
 
         assertThrows(DuplicateResourceException.class, () -> {
             cardCommandService.createCard(createRequest);
         });
 
         verify(cardRepository, never()).save(any(Card.class));
+        verify(encryptionUtil, never()).encrypt(anyString());
     }
 
     @Test
@@ -135,7 +144,6 @@ class CardServiceTest {
 
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
         when(cardRepository.save(any(Card.class))).thenReturn(testCard);
-        when(encryptionUtil.decrypt(anyString())).thenReturn("1234567890123456");
         when(maskingUtil.maskCardNumber(anyString())).thenReturn("**** **** **** 3456");
 
         CardResponse response = cardCommandService.updateCardStatus(1L, request, 1L);
@@ -156,6 +164,15 @@ class CardServiceTest {
         });
     }
 
+    @Test
+    void deleteCard_DeletedCard_NotFound() {
+        testCard.setDeletedAt(LocalDateTime.now());
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+
+        assertThrows(CardNotFoundException.class, () -> cardCommandService.deleteCard(1L, 1L));
+        verify(eventService, never()).recordCardDeletedEvent(anyLong(), anyLong());
+    }
+
     @Test
     void deleteCard_Success() {
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
@@ -163,6 +180,7 @@ class CardServiceTest {
         cardCommandService.deleteCard(1L, 1L);
 
         verify(eventService, times(1)).recordCardDeletedEvent(1L, 1L);
-        verify(cardRepository, times(1)).delete(testCard);
+        verify(cardRepository, times(1)).save(argThat(card -> card.getDeletedAt() != null));
+        verify(cardRepository, never()).delete(any(Card.class));
     }
 }
\ No newline at end of file
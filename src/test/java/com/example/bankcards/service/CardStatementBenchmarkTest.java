@@ -0,0 +1,124 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.TransferPeriod;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.TransferStatementRepository;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the OR-based card history query with the UNION of two index range scans on a seeded
+ * table. Seeding takes a while, so it only runs with {@code -Dbenchmark=true}
+ * ({@code -Dbenchmark.transfers=N} changes the table size, default 3,000,000).
+ */
+@SpringBootTest
+@Import(TestFixture.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CardStatementBenchmarkTest {
+
+    private static final int CARDS = 50;
+    private static final int PAGE_SIZE = 20;
+    private static final int RUNS = 50;
+
+    private static final String OR_PAGE_SQL =
+            "SELECT t.id FROM transfers t " +
+            "JOIN cards fc ON fc.id = t.from_card_id JOIN cards tc ON tc.id = t.to_card_id " +
+            "WHERE (t.from_card_id = ? OR t.to_card_id = ?) AND t.user_id = ? " +
+            "ORDER BY t.created_at DESC, t.id DESC LIMIT ? OFFSET ?";
+
+    @Autowired
+    private TransferStatementRepository statementRepository;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Long cardId;
+    private Long quietCardId;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("bench");
+
+        jdbcTemplate.update(
+                "INSERT INTO cards (card_number_encrypted, card_number_hash, card_number_last_four, card_holder, " +
+                "expiry_date, cvv_encrypted, status, balance, user_id) " +
+                "SELECT md5(random()::text), md5(random()::text), lpad(g::text, 4, '0'), 'Benchmark', " +
+                "CURRENT_DATE + 1000, 'cvv', 0, 0, ? FROM generate_series(1, ?) g",
+                user.getId(), CARDS);
+        List<Long> cards = jdbcTemplate.queryForList(
+                "SELECT id FROM cards WHERE user_id = ? ORDER BY id", Long.class, user.getId());
+        cardId = cards.get(0);
+
+        int transfers = Integer.getInteger("benchmark.transfers", 3_000_000);
+        long startedAt = System.nanoTime();
+        jdbcTemplate.update(
+                "INSERT INTO transfers (from_card_id, to_card_id, amount, status, description, user_id, created_at) " +
+                "SELECT ? + f, ? + (f + 1 + (g % (? - 1))) % ?, 1, 'COMPLETED', 'benchmark', ?, " +
+                "TIMESTAMP '2020-01-01' + g * INTERVAL '1 second' " +
+                "FROM (SELECT g, (g::bigint * 7919) % ? AS f FROM generate_series(1, ?) g) s",
+                cardId, cardId, CARDS, CARDS, user.getId(), CARDS, transfers);
+        // A card used only in the oldest transfers: the OR query has to walk the user's whole history
+        quietCardId = cards.get(CARDS - 1);
+        jdbcTemplate.update("UPDATE transfers SET to_card_id = ? WHERE user_id = ? AND to_card_id <> ? AND id IN " +
+                "(SELECT id FROM transfers WHERE user_id = ? ORDER BY created_at LIMIT 100)",
+                quietCardId, user.getId(), quietCardId, user.getId());
+        jdbcTemplate.update("UPDATE transfers SET from_card_id = ?, to_card_id = ? WHERE user_id = ? " +
+                "AND (from_card_id = ? OR to_card_id = ?) AND created_at > TIMESTAMP '2020-01-01' + INTERVAL '1 hour'",
+                cards.get(1), cards.get(2), user.getId(), quietCardId, quietCardId);
+        jdbcTemplate.execute("ANALYZE transfers");
+        System.out.printf("CardStatementBenchmark: seeded %d transfers in %.1fs%n",
+                transfers, (System.nanoTime() - startedAt) / 1_000_000_000.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void unionMatchesOrQueryAndIsFaster() {
+        compare("busy card", cardId, new long[]{0, 1_000, 20_000});
+        compare("quiet card", quietCardId, new long[]{0});
+    }
+
+    private void compare(String label, Long cardId, long[] offsets) {
+        for (long offset : offsets) {
+            List<Long> expected = jdbcTemplate.queryForList(OR_PAGE_SQL, Long.class,
+                    cardId, cardId, user.getId(), PAGE_SIZE, offset);
+            List<Long> actual = statementRepository.findPage(cardId, user.getId(), TransferPeriod.ALL, offset, PAGE_SIZE).stream()
+                    .map(view -> view.id())
+                    .toList();
+            assertEquals(expected, actual);
+
+            double orMillis = time(() -> jdbcTemplate.queryForList(OR_PAGE_SQL, Long.class,
+                    cardId, cardId, user.getId(), PAGE_SIZE, offset));
+            double unionMillis = time(() -> statementRepository.findPage(cardId, user.getId(), TransferPeriod.ALL, offset, PAGE_SIZE));
+            System.out.printf("CardStatementBenchmark: %s, offset %d, OR %.2f ms/page, UNION %.2f ms/page%n",
+                    label, offset, orMillis, unionMillis);
+        }
+    }
+
+    private static double time(Runnable query) {
+        query.run();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - startedAt) / 1_000_000.0 / RUNS;
+    }
+}
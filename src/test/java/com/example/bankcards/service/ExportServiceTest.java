@@ -0,0 +1,144 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.ExportFormat;
+import com.example.bankcards.dto.card.CardCreateRequest;
+import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.contracts.CardCommandServiceInterface;
+import com.example.bankcards.service.contracts.ExportServiceInterface;
+import com.example.bankcards.service.contracts.TransferServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports real cards and transfers through a cursor fetching two rows at a time.
+ */
+@SpringBootTest(properties = "app.export.fetch-size=2")
+@Import(TestFixture.class)
+class ExportServiceTest {
+
+    @Autowired
+    private ExportServiceInterface exportService;
+
+    @Autowired
+    private CardCommandServiceInterface cardCommandService;
+
+    @Autowired
+    private TransferServiceInterface transferService;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("export");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void exportCards_WritesEveryCardMasked() throws Exception {
+        List<CardResponse> cards = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            cards.add(createCard("EXPORT " + i));
+        }
+
+        List<JsonNode> exported = new ArrayList<>();
+        for (String line : export(ExportFormat.NDJSON, true).split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.get("userId").asLong() == user.getId()) {
+                exported.add(node);
+            }
+        }
+
+        assertEquals(5, exported.size());
+        for (int i = 0; i < 5; i++) {
+            JsonNode node = exported.get(i);
+            assertEquals(cards.get(i).getId(), node.get("id").asLong());
+            assertEquals(cards.get(i).getCardNumberMasked(), node.get("cardNumberMasked").asText());
+            assertTrue(node.get("cardNumberMasked").asText().startsWith("****"));
+            assertEquals(user.getUsername(), node.get("userName").asText());
+            assertEquals("ACTIVE", node.get("status").asText());
+        }
+    }
+
+    @Test
+    void exportCsv_QuotesFieldsAndStartsWithHeader() {
+        CardResponse quoted = createCard("DOE, \"JD\" JOHN");
+        CardResponse other = createCard("JANE DOE");
+        TransferRequest transfer = new TransferRequest();
+        transfer.setFromCardId(quoted.getId());
+        transfer.setToCardId(other.getId());
+        transfer.setAmount(new BigDecimal("12.50"));
+        transfer.setDescription("rent, march");
+        Long transferId = transferService.executeTransfer(transfer, user.getId()).getId();
+
+        String cards = export(ExportFormat.CSV, true);
+        assertTrue(cards.startsWith(ExportService.CARDS_HEADER + "\n"));
+        assertTrue(cards.contains(quoted.getId() + "," + quoted.getCardNumberMasked() + ",\"DOE, \"\"JD\"\" JOHN\","));
+
+        String transfers = export(ExportFormat.CSV, false);
+        assertTrue(transfers.startsWith(ExportService.TRANSFERS_HEADER + "\n"));
+        assertTrue(transfers.contains(transferId + "," + quoted.getId() + "," + quoted.getCardNumberMasked() + ","
+                + other.getId() + "," + other.getCardNumberMasked() + ",12.50,COMPLETED,\"rent, march\","
+                + user.getId() + ","));
+    }
+
+    @Test
+    void exportCsv_PrefixesFormulaCells() {
+        CardResponse formula = createCard("@SUM(A1)");
+        CardResponse other = createCard("JANE DOE");
+        TransferRequest transfer = new TransferRequest();
+        transfer.setFromCardId(formula.getId());
+        transfer.setToCardId(other.getId());
+        transfer.setAmount(new BigDecimal("12.50"));
+        transfer.setDescription("=HYPERLINK(\"http://evil.example\",\"invoice\")");
+        Long transferId = transferService.executeTransfer(transfer, user.getId()).getId();
+
+        assertTrue(export(ExportFormat.CSV, true).contains(
+                formula.getId() + "," + formula.getCardNumberMasked() + ",'@SUM(A1),"));
+        assertTrue(export(ExportFormat.CSV, false).contains(transferId + "," + formula.getId() + ","
+                + formula.getCardNumberMasked() + "," + other.getId() + "," + other.getCardNumberMasked()
+                + ",12.50,COMPLETED,\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"invoice\"\")\","));
+    }
+
+    private String export(ExportFormat format, boolean cards) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (cards) {
+            exportService.exportCards(format, out);
+        } else {
+            exportService.exportTransfers(format, out);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private CardResponse createCard(String holder) {
+        CardCreateRequest request = fixture.cardRequest(user);
+        request.setCardHolder(holder);
+        return cardCommandService.createCard(request);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.bankcards.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Monthly partitions of transfers and card_events against a real database.
+ */
+@SpringBootTest
+class PartitionMaintenanceServiceTest {
+
+    @Autowired
+    private PartitionMaintenanceService maintenanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void startup_CreatesPartitionsAhead() {
+        YearMonth current = YearMonth.now();
+        for (String table : List.of("transfers", "card_events")) {
+            List<String> partitions = maintenanceService.partitionsOf(table);
+            for (int i = 0; i <= 3; i++) {
+                assertTrue(partitions.contains(PartitionMaintenanceService.partitionName(table, current.plusMonths(i))),
+                        () -> table + " partitions: " + partitions);
+            }
+            assertTrue(partitions.contains(table + "_default"));
+        }
+    }
+
+    @Test
+    void expiredPartitions_AreDetachedAndDropped() {
+        YearMonth old = YearMonth.of(2000, 1);
+        assertEquals(List.of("transfers_p200001"), maintenanceService.createPartitions("transfers", old, old));
+        assertTrue(maintenanceService.createPartitions("transfers", old, old).isEmpty());
+
+        assertEquals(List.of("transfers_p200001"),
+                maintenanceService.detachPartitionsBefore("transfers", old.plusMonths(1), true));
+
+        assertFalse(maintenanceService.partitionsOf("transfers").contains("transfers_p200001"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_class WHERE relname = 'transfers_p200001'", Integer.class));
+    }
+
+    @Test
+    void newPartition_TakesOverRowsFromDefaultPartition() {
+        YearMonth old = YearMonth.of(2001, 1);
+        jdbcTemplate.update("INSERT INTO card_events (aggregate_id, event_type, event_data, user_id, timestamp, dispatched_at) " +
+                "VALUES (-1, 'PARTITION_TEST', '{}', -1, ?, ?)", old.atDay(15).atStartOfDay(), LocalDateTime.now());
+        try {
+            assertEquals(1, countRows("card_events_default"));
+
+            assertEquals(List.of("card_events_p200101"), maintenanceService.createPartitions("card_events", old, old));
+
+            assertEquals(0, countRows("card_events_default"));
+            assertEquals(1, countRows("card_events_p200101"));
+            assertTrue(maintenanceService.partitionsOf("card_events").contains("card_events_default"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM card_events WHERE event_type = 'PARTITION_TEST'");
+            jdbcTemplate.execute("DROP TABLE IF EXISTS card_events_p200101");
+        }
+    }
+
+    @Test
+    void unarchivedPartition_IsNotDetached() {
+        YearMonth old = YearMonth.of(2002, 1);
+        maintenanceService.createPartitions("card_events", old, old);
+        jdbcTemplate.update("INSERT INTO card_events (aggregate_id, event_type, event_data, user_id, timestamp, dispatched_at) " +
+                "VALUES (-1, 'PARTITION_TEST', '{}', -1, ?, ?)", old.atDay(15).atStartOfDay(), LocalDateTime.now());
+        try {
+            assertTrue(maintenanceService.detachPartitionsBefore("card_events", old.plusMonths(1), true).isEmpty());
+            assertTrue(maintenanceService.partitionsOf("card_events").contains("card_events_p200201"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM card_events WHERE event_type = 'PARTITION_TEST'");
+            jdbcTemplate.execute("DROP TABLE IF EXISTS card_events_p200201");
+        }
+    }
+
+    @Test
+    void partitionRetention_MustNotOutrunArchiveRetention() {
+        assertThrows(IllegalStateException.class, () -> PartitionMaintenanceService.checkRetention("transfers", 3, 0));
+        assertThrows(IllegalStateException.class, () -> PartitionMaintenanceService.checkRetention("transfers", 3, 90));
+        assertThrows(IllegalStateException.class, () -> PartitionMaintenanceService.checkRetention("transfers", 1, 1));
+        assertDoesNotThrow(() -> PartitionMaintenanceService.checkRetention("transfers", 3, 56));
+        assertDoesNotThrow(() -> PartitionMaintenanceService.checkRetention("transfers", 0, 0));
+    }
+
+    @Test
+    void boundedQuery_ScansOnlyOverlappingPartitions() {
+        YearMonth current = YearMonth.now();
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM transfers WHERE user_id = 1 AND created_at >= ? AND created_at < ?",
+                String.class, current.atDay(1).atStartOfDay(), current.plusMonths(1).atDay(1).atStartOfDay());
+        String text = String.join("\n", plan);
+
+        assertTrue(text.contains(PartitionMaintenanceService.partitionName("transfers", current)), text);
+        assertFalse(text.contains(PartitionMaintenanceService.partitionName("transfers", current.plusMonths(1))), text);
+        assertFalse(text.contains("transfers_default"), text);
+    }
+
+    private int countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
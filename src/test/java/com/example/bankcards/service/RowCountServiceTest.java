@@ -0,0 +1,87 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.SliceResponse;
+import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.contracts.CardQueryServiceInterface;
+import com.example.bankcards.service.contracts.RowCountServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Count-free pages and their approximate totals against a real database.
+ */
+@SpringBootTest
+@Import(TestFixture.class)
+class RowCountServiceTest {
+
+    @Autowired
+    private RowCountServiceInterface rowCountService;
+
+    @Autowired
+    private CardQueryServiceInterface cardQueryService;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("count");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void getUserCardsSlice_PagesWithoutCountAndCachesTheUserTotal() {
+        for (int i = 0; i < 3; i++) {
+            fixture.createCard(user);
+        }
+        PageRequest firstPage = PageRequest.of(0, 2, Sort.by("createdAt"));
+
+        SliceResponse<CardResponse> first = cardQueryService.getUserCardsSlice(user.getId(), firstPage);
+        SliceResponse<CardResponse> last = cardQueryService.getUserCardsSlice(user.getId(), firstPage.next());
+
+        assertEquals(2, first.content().size());
+        assertTrue(first.hasNext());
+        assertEquals(1, last.content().size());
+        assertFalse(last.hasNext());
+        assertEquals(3L, first.approximateTotalElements());
+
+        // Served from the cache until its time to live passes
+        fixture.createCard(user);
+        assertEquals(3L, rowCountService.countUserCards(user.getId()));
+    }
+
+    @Test
+    void estimates_ComeFromTableStatistics() {
+        fixture.createCard(user);
+        jdbcTemplate.execute("ANALYZE cards");
+        jdbcTemplate.execute("ANALYZE users");
+
+        Long cards = rowCountService.estimateCards();
+        Long users = rowCountService.estimateUsers();
+
+        assertNotNull(cards);
+        assertNotNull(users);
+        assertTrue(cards >= 1);
+        assertTrue(users >= 1);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.contracts.TransferServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch transfers against a real database.
+ */
+@SpringBootTest
+@Import(TestFixture.class)
+class TransferBatchTest {
+
+    @Autowired
+    private TransferServiceInterface transferService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Long cardA;
+    private Long cardB;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("batch");
+
+        cardA = fixture.createCard(user).getId();
+        cardB = fixture.createCard(user).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void batchTransfers_AppliesValidItemsAndInsertsRows() {
+        List<TransferRequest> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            boolean forward = i % 2 == 0;
+            items.add(new TransferRequest(forward ? cardA : cardB, forward ? cardB : cardA, BigDecimal.TEN, "batch"));
+        }
+        items.add(new TransferRequest(cardA, cardB, TestFixture.INITIAL_BALANCE.multiply(BigDecimal.TEN), "too large"));
+
+        BatchTransferResponse response = transferService.executeTransfers(
+                new BatchTransferRequest(items, false), user.getId());
+
+        assertEquals(1000, response.getCompleted());
+        assertEquals(1, response.getRejected());
+        assertEquals("REJECTED", response.getResults().get(1000).getStatus());
+        assertNotNull(response.getResults().get(999).getTransfer().getId());
+
+        BigDecimal balanceA = cardRepository.findById(cardA).orElseThrow().getBalance();
+        assertEquals(0, TestFixture.INITIAL_BALANCE.compareTo(balanceA));
+
+        Integer inserted = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transfers WHERE user_id = ?", Integer.class, user.getId());
+        assertEquals(1000, inserted);
+    }
+}
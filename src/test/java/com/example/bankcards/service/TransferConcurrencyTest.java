@@ -0,0 +1,120 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.contracts.TransferServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs crossing transfers (A -> B and B -> A) from many threads against a real database. With
+ * {@code -Dbenchmark=true} the scenario runs at full size and reports its timing.
+ */
+@SpringBootTest
+@Import(TestFixture.class)
+class TransferConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final boolean BENCHMARK = Boolean.getBoolean("benchmark");
+    private static final int TRANSFERS_PER_DIRECTION = BENCHMARK ? 2000 : 200;
+    static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000_000);
+
+    @Autowired
+    TransferServiceInterface transferService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    User user;
+    Long cardA;
+    Long cardB;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("stress");
+
+        cardA = fixture.createCard(user, INITIAL_BALANCE).getId();
+        cardB = fixture.createCard(user, INITIAL_BALANCE).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void crossingTransfers_NoDeadlocksAndBalanceConserved() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < TRANSFERS_PER_DIRECTION * 2; i++) {
+            boolean forward = i % 2 == 0;
+            TransferRequest request = new TransferRequest(
+                    forward ? cardA : cardB,
+                    forward ? cardB : cardA,
+                    BigDecimal.ONE,
+                    "stress"
+            );
+            futures.add(executor.submit(() -> {
+                try {
+                    start.await();
+                    transferService.executeTransfer(request, user.getId());
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        if (BENCHMARK) {
+            double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+            System.out.printf("%s: executed %d crossing transfers in %.2fs (%.0f transfers/s)%n",
+                    getClass().getSimpleName(), futures.size(), seconds, futures.size() / seconds);
+        }
+
+        assertTrue(failures.isEmpty(), () -> "Transfers failed: " + failures.peek());
+
+        BigDecimal balanceA = cardRepository.findById(cardA).orElseThrow().getBalance();
+        BigDecimal balanceB = cardRepository.findById(cardB).orElseThrow().getBalance();
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(2)).compareTo(balanceA.add(balanceB)));
+        assertEquals(0, INITIAL_BALANCE.compareTo(balanceA));
+
+        Integer completed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transfers WHERE user_id = ? AND status = 'COMPLETED'",
+                Integer.class, user.getId());
+        assertEquals(TRANSFERS_PER_DIRECTION * 2, completed);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.contracts.TransferIdempotencyServiceInterface;
+import com.example.bankcards.service.contracts.TransferServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Idempotency keys of transfer requests against a real database.
+ */
+@SpringBootTest
+@Import(TestFixture.class)
+class TransferIdempotencyServiceTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TransferServiceInterface transferService;
+
+    @Autowired
+    private TransferIdempotencyServiceInterface idempotencyService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Long cardA;
+    private Long cardB;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("idempotency");
+
+        cardA = fixture.createCard(user).getId();
+        cardB = fixture.createCard(user).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void sameIdempotencyKey_ExecutesTransferOnce() throws Exception {
+        TransferRequest request = new TransferRequest(cardA, cardB, BigDecimal.TEN, "idempotent");
+        String key = UUID.randomUUID().toString();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return transferService.executeTransfer(request, user.getId(), key).getId();
+            }));
+        }
+        start.countDown();
+
+        Long transferId = futures.get(0).get();
+        for (Future<Long> future : futures) {
+            assertEquals(transferId, future.get());
+        }
+        executor.shutdown();
+
+        assertEquals(transferId, transferService.executeTransfer(request, user.getId(), key).getId());
+
+        Integer inserted = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transfers WHERE user_id = ?", Integer.class, user.getId());
+        assertEquals(1, inserted);
+        BigDecimal balanceA = cardRepository.findById(cardA).orElseThrow().getBalance();
+        assertEquals(0, TestFixture.INITIAL_BALANCE.subtract(BigDecimal.TEN).compareTo(balanceA));
+    }
+
+    @Test
+    void reusedIdempotencyKey_WithDifferentRequest_IsRejected() {
+        String key = UUID.randomUUID().toString();
+        TransferRequest request = new TransferRequest(cardA, cardB, BigDecimal.TEN, "first");
+        Long transferId = transferService.executeTransfer(request, user.getId(), key).getId();
+
+        TransferRequest otherAmount = new TransferRequest(cardA, cardB, BigDecimal.ONE, "first");
+        TransferRequest otherCards = new TransferRequest(cardB, cardA, BigDecimal.TEN, "first");
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> transferService.executeTransfer(otherAmount, user.getId(), key));
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> transferService.executeTransfer(otherCards, user.getId(), key));
+        // Past the cache, the stored fingerprint decides
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.findTransferId(user.getId(), key, otherAmount));
+        TransferRequest sameAmount = new TransferRequest(cardA, cardB, new BigDecimal("10.00"), "first");
+        assertEquals(transferId, idempotencyService.findTransferId(user.getId(), key, sameAmount).orElseThrow());
+
+        Integer inserted = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transfers WHERE user_id = ?", Integer.class, user.getId());
+        assertEquals(1, inserted);
+    }
+
+    @Test
+    void expiredIdempotencyKeys_ArePurged() {
+        String key = UUID.randomUUID().toString();
+        TransferRequest request = new TransferRequest(cardA, cardB, BigDecimal.TEN, "purged");
+        transferService.executeTransfer(request, user.getId(), key);
+        jdbcTemplate.update("UPDATE transfer_idempotency_keys SET created_at = created_at - INTERVAL '2 days' " +
+                "WHERE user_id = ? AND idempotency_key = ?", user.getId(), key);
+
+        assertTrue(idempotencyService.purgeExpiredKeys() >= 1);
+        assertTrue(idempotencyService.findTransferId(user.getId(), key, request).isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.contracts.TransferServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ledger entries posted by transfers against a real database.
+ */
+@SpringBootTest
+@Import(TestFixture.class)
+class TransferLedgerTest {
+
+    @Autowired
+    private TransferServiceInterface transferService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Long cardA;
+    private Long cardB;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("ledger");
+
+        cardA = fixture.createCard(user).getId();
+        cardB = fixture.createCard(user).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void transfers_PostOneEntryPerCardAndMatchTheBalance() {
+        List<TransferRequest> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            boolean forward = i % 2 == 0;
+            items.add(new TransferRequest(forward ? cardA : cardB, forward ? cardB : cardA, BigDecimal.TEN, "batch"));
+        }
+        items.add(new TransferRequest(cardA, cardB, TestFixture.INITIAL_BALANCE.multiply(BigDecimal.TEN), "too large"));
+        transferService.executeTransfers(new BatchTransferRequest(items, false), user.getId());
+        transferService.executeTransfer(new TransferRequest(cardA, cardB, BigDecimal.ONE, "single"), user.getId());
+
+        // The opening entry, then one entry per completed transfer; the rejected one posts nothing
+        assertLedgerMatchesBalance(cardA, 102);
+        assertLedgerMatchesBalance(cardB, 102);
+        assertEquals(202, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger_entries WHERE transfer_id IN (SELECT id FROM transfers WHERE user_id = ?)",
+                Integer.class, user.getId()));
+    }
+
+    /**
+     * The ledger of a card sums up to its balance, is numbered 1..n without gaps and its last
+     * entry carries the current balance.
+     */
+    private void assertLedgerMatchesBalance(Long cardId, int expectedEntries) {
+        Map<String, Object> ledger = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS entries, MAX(sequence) AS last_sequence, SUM(amount) AS total, " +
+                "(SELECT balance_after FROM ledger_entries WHERE card_id = ? ORDER BY sequence DESC LIMIT 1) AS last_balance " +
+                "FROM ledger_entries WHERE card_id = ?", cardId, cardId);
+        Card card = cardRepository.findById(cardId).orElseThrow();
+
+        assertEquals(expectedEntries, ((Number) ledger.get("entries")).intValue());
+        assertEquals(expectedEntries, ((Number) ledger.get("last_sequence")).intValue());
+        assertEquals(expectedEntries, card.getLedgerSequence().intValue());
+        assertEquals(0, card.getBalance().compareTo((BigDecimal) ledger.get("total")));
+        assertEquals(0, card.getBalance().compareTo((BigDecimal) ledger.get("last_balance")));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CursorPageResponse;
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.TransferPeriod;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.dto.transfer.TransferResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.InvalidCursorException;
+import com.example.bankcards.service.contracts.TransferServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pages of a user's transfer history against a real database. With {@code -Dbenchmark=true}
+ * the page throughput is measured as well.
+ */
+@SpringBootTest
+@Import(TestFixture.class)
+class TransferPagingTest {
+
+    @Autowired
+    private TransferServiceInterface transferService;
+
+    @Autowired
+    private TestFixture fixture;
+
+    private User user;
+    private Long cardA;
+    private Long cardB;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("paging");
+
+        cardA = fixture.createCard(user).getId();
+        cardB = fixture.createCard(user).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void cursorPages_ReturnEveryTransferOnceNewestFirst() {
+        List<TransferRequest> items = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            items.add(new TransferRequest(cardA, cardB, BigDecimal.ONE, "cursor"));
+        }
+        transferService.executeTransfers(new BatchTransferRequest(items, true), user.getId());
+        transferService.executeTransfer(new TransferRequest(cardB, cardA, BigDecimal.ONE, "latest"), user.getId());
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageResponse<TransferResponse> page = transferService.getUserTransfers(user.getId(), null, TransferPeriod.ALL, cursor, 100);
+            page.content().forEach(transfer -> ids.add(transfer.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(251, ids.size());
+        assertEquals(251, ids.stream().distinct().count());
+        assertEquals("latest", transferService.getUserTransfers(user.getId(), cardB, TransferPeriod.ALL, null, 1)
+                .content().get(0).getDescription());
+        assertThrows(InvalidCursorException.class,
+                () -> transferService.getUserTransfers(user.getId(), null, TransferPeriod.ALL, "not-a-cursor", 10));
+    }
+
+    @Test
+    void userTransfersPages_CountAndMask() {
+        insertPageTransfers();
+
+        Page<TransferResponse> page = transferService.getUserTransfers(
+                user.getId(), TransferPeriod.ALL, PageRequest.of(0, 10));
+        assertEquals(200, page.getTotalElements());
+        assertTrue(page.getContent().get(0).getFromCardNumberMasked().startsWith("****"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void userTransfersPages_Throughput() {
+        insertPageTransfers();
+
+        PageRequest pageable = PageRequest.of(0, 10);
+        for (int i = 0; i < 200; i++) {
+            transferService.getUserTransfers(user.getId(), TransferPeriod.ALL, pageable);
+        }
+
+        int pages = 2000;
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < pages; i++) {
+            transferService.getUserTransfers(user.getId(), TransferPeriod.ALL, PageRequest.of(i % 20, 10));
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        System.out.printf("%s: read %d pages of user transfers in %.2fs (%.0f pages/s)%n",
+                getClass().getSimpleName(), pages, seconds, pages / seconds);
+
+        assertEquals(200, transferService.getUserTransfers(user.getId(), TransferPeriod.ALL, pageable)
+                .getTotalElements());
+    }
+
+    private void insertPageTransfers() {
+        List<TransferRequest> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(new TransferRequest(cardA, cardB, BigDecimal.ONE, "page"));
+        }
+        transferService.executeTransfers(new BatchTransferRequest(items, true), user.getId());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.TransferPeriod;
+import com.example.bankcards.dto.transfer.TransferRequest;
+import com.example.bankcards.dto.transfer.TransferResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.contracts.TransferServiceInterface;
+import com.example.bankcards.support.TestFixture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements Hibernate prepares for transfer history reads against a real database.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestFixture.class)
+class TransferQueryStatementsTest {
+
+    @Autowired
+    private TransferServiceInterface transferService;
+
+    @Autowired
+    private TestFixture fixture;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Long cardA;
+    private Long cardB;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.createUser("stmts");
+
+        cardA = fixture.createCard(user).getId();
+        cardB = fixture.createCard(user).getId();
+
+        List<TransferRequest> items = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            boolean forward = i % 2 == 0;
+            items.add(new TransferRequest(forward ? cardA : cardB, forward ? cardB : cardA, BigDecimal.ONE, "history"));
+        }
+        transferService.executeTransfers(new BatchTransferRequest(items, true), user.getId());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.deleteUser(user);
+    }
+
+    @Test
+    void getUserTransfers_SelectAndCountOnly() {
+        Page<TransferResponse> page = transferService.getUserTransfers(
+                user.getId(), TransferPeriod.ALL, PageRequest.of(0, 50, Sort.by("createdAt")));
+
+        assertEquals(50, page.getContent().size());
+        assertEquals(60, page.getTotalElements());
+        assertTrue(page.getContent().get(0).getFromCardNumberMasked().startsWith("****"));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getCardTransfers_NoEntityLoads() {
+        Page<TransferResponse> page = transferService.getCardTransfers(cardA, user.getId(), TransferPeriod.ALL, PageRequest.of(1, 20));
+
+        assertEquals(20, page.getContent().size());
+        assertEquals(60, page.getTotalElements());
+        assertTrue(page.getContent().get(0).getCreatedAt().compareTo(page.getContent().get(19).getCreatedAt()) >= 0);
+        // Card history is read with plain JDBC (UNION of two index range scans), Hibernate runs nothing
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getTransferById_SingleStatement() {
+        Long transferId = transferService.getUserTransfers(user.getId(), null, TransferPeriod.ALL, null, 1).content().get(0).getId();
+        statistics.clear();
+
+        TransferResponse transfer = transferService.getTransferById(transferId, user.getId());
+
+        assertEquals(transferId, transfer.getId());
+        assertNotNull(transfer.getToCardNumberMasked());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUserTransfersByCursor_SingleStatement() {
+        String cursor = transferService.getUserTransfers(user.getId(), null, TransferPeriod.ALL, null, 25).nextCursor();
+        statistics.clear();
+
+        assertEquals(25, transferService.getUserTransfers(user.getId(), null, TransferPeriod.ALL, cursor, 25).content().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
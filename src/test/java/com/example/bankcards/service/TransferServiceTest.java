@@ -1,5 +1,7 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.transfer.BatchTransferRequest;
+import com.example.bankcards.dto.transfer.BatchTransferResponse;
 import com.example.bankcards.dto.transfer.TransferRequest;
 import com.example.bankcards.dto.transfer.TransferResponse;
 import com.example.bankcards.entity.Card;
@@ -7,7 +9,10 @@ import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.*;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryBatchRepository;
+import com.example.bankcards.repository.TransferBatchRepository;
 import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.contracts.TransferIdempotencyServiceInterface;
 import com.example.bankcards.util.CardMaskingUtil;
 import com.example.bankcards.util.EncryptionUtil;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,11 +24,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -35,6 +43,12 @@ class TransferServiceTest {
     @MockBean
     private CardRepository cardRepository;
 
+    @MockBean
+    private TransferBatchRepository transferBatchRepository;
+
+    @MockBean
+    private LedgerEntryBatchRepository ledgerRepository;
+
     @MockBean
     private EncryptionUtil encryptionUtil;
 
@@ -44,6 +58,9 @@ class TransferServiceTest {
     @MockBean
     private CardEventService eventService;
 
+    @MockBean
+    private TransferIdempotencyServiceInterface idempotencyService;
+
     @Autowired
     private TransferService transferService;
 
@@ -60,6 +77,7 @@ class TransferServiceTest {
         fromCard = new Card();
         fromCard.setId(1L);
         fromCard.setCardNumberEncrypted("encrypted1");
+        fromCard.setCardNumberLastFour("3456");
         fromCard.setBalance(BigDecimal.valueOf(1000));
         fromCard.setStatus(Card.CardStatus.ACTIVE);
         fromCard.setExpiryDate(LocalDate.now().plusYears(3));
@@ -68,6 +86,7 @@ class TransferServiceTest {
         toCard = new Card();
         toCard.setId(2L);
         toCard.setCardNumberEncrypted("encrypted2");
+        toCard.setCardNumberLastFour("7890");
         toCard.setBalance(BigDecimal.valueOf(500));
         toCard.setStatus(Card.CardStatus.ACTIVE);
         toCard.setExpiryDate(LocalDate.now().plusYears(3));
@@ -83,8 +102,7 @@ class TransferServiceTest {
     @Test
     @Transactional
     void executeTransfer_Success() {
-        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(fromCard, toCard));
         when(cardRepository.save(any(Card.class))).thenAnswer(i -> i.getArguments()[0]);
 
         Transfer savedTransfer = new Transfer();
@@ -96,7 +114,6 @@ class TransferServiceTest {
         savedTransfer.setUserId(1L);
 
         when(transferRepository.save(any(Transfer.class))).thenReturn(savedTransfer);
-        when(encryptionUtil.decrypt(anyString())).thenReturn("1234567890123456");
         when(maskingUtil.maskCardNumber(anyString())).thenReturn("**** **** **** 3456");
 
         TransferResponse response = transferService.executeTransfer(transferRequest, 1L);
@@ -108,6 +125,12 @@ class TransferServiceTest {
         assertEquals(BigDecimal.valueOf(600), toCard.getBalance());
 
         verify(transferRepository, times(1)).save(any(Transfer.class));
+        verify(ledgerRepository, times(1)).insertAll(argThat(entries -> entries.size() == 2
+                && entries.get(0).getAmount().equals(BigDecimal.valueOf(-100))
+                && entries.get(0).getBalanceAfter().equals(BigDecimal.valueOf(900))
+                && entries.get(1).getAmount().equals(BigDecimal.valueOf(100))
+                && entries.get(1).getSequence() == 1L));
+        verify(encryptionUtil, never()).decrypt(anyString());
     }
 
     @Test
@@ -134,8 +157,7 @@ class TransferServiceTest {
     void executeTransfer_InsufficientBalance() {
         transferRequest.setAmount(BigDecimal.valueOf(2000));
 
-        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(fromCard, toCard));
 
         assertThrows(InsufficientBalanceException.class, () -> {
             transferService.executeTransfer(transferRequest, 1L);
@@ -148,8 +170,7 @@ class TransferServiceTest {
     void executeTransfer_FromCardNotActive() {
         fromCard.setStatus(Card.CardStatus.BLOCKED);
 
-        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(fromCard, toCard));
 
         assertThrows(CardNotActiveException.class, () -> {
             transferService.executeTransfer(transferRequest, 1L);
@@ -160,8 +181,7 @@ class TransferServiceTest {
     void executeTransfer_ToCardNotActive() {
         toCard.setStatus(Card.CardStatus.BLOCKED);
 
-        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(fromCard, toCard));
 
         assertThrows(CardNotActiveException.class, () -> {
             transferService.executeTransfer(transferRequest, 1L);
@@ -174,8 +194,7 @@ class TransferServiceTest {
         anotherUser.setId(2L);
         toCard.setUser(anotherUser);
 
-        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(fromCard, toCard));
 
         assertThrows(UnauthorizedException.class, () -> {
             transferService.executeTransfer(transferRequest, 1L);
@@ -188,4 +207,64 @@ class TransferServiceTest {
             transferService.executeTransfer(transferRequest, 1L);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void executeTransfers_BestEffort_ReportsRejectedItems() {
+        TransferRequest tooLarge = new TransferRequest(1L, 2L, BigDecimal.valueOf(950), "Too large");
+        BatchTransferRequest batch = new BatchTransferRequest(List.of(transferRequest, tooLarge, transferRequest), false);
+
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(fromCard, toCard));
+        when(maskingUtil.maskCardNumber(anyString())).thenReturn("**** **** **** 3456");
+
+        BatchTransferResponse response = transferService.executeTransfers(batch, 1L);
+
+        assertEquals(2, response.getCompleted());
+        assertEquals(1, response.getRejected());
+        assertEquals("COMPLETED", response.getResults().get(0).getStatus());
+        assertEquals("REJECTED", response.getResults().get(1).getStatus());
+        assertEquals("COMPLETED", response.getResults().get(2).getStatus());
+        assertEquals(BigDecimal.valueOf(800), fromCard.getBalance());
+        assertEquals(BigDecimal.valueOf(700), toCard.getBalance());
+
+        verify(cardRepository, times(1)).findAllByIdForUpdate(anyCollection());
+        verify(transferBatchRepository, times(1)).insertAll(argThat(list -> list.size() == 2));
+        verify(ledgerRepository, times(1)).insertAll(argThat(entries -> entries.size() == 4
+                && entries.get(2).getSequence() == 2L));
+    }
+
+    @Test
+    void executeTransfers_AllOrNothing_RejectsWholeBatch() {
+        TransferRequest tooLarge = new TransferRequest(1L, 2L, BigDecimal.valueOf(950), "Too large");
+        BatchTransferRequest batch = new BatchTransferRequest(List.of(transferRequest, tooLarge), true);
+
+        when(cardRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(fromCard, toCard));
+
+        assertThrows(InsufficientBalanceException.class, () -> {
+            transferService.executeTransfers(batch, 1L);
+        });
+
+        verify(transferBatchRepository, never()).insertAll(any());
+        verify(ledgerRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void executeTransfer_RepeatedIdempotencyKey_ReturnsStoredResponse() {
+        TransferResponse stored = new TransferResponse();
+        stored.setId(42L);
+        when(idempotencyService.getCachedResponse(1L, "key-1", transferRequest)).thenReturn(Optional.of(stored));
+
+        TransferResponse response = transferService.executeTransfer(transferRequest, 1L, "key-1");
+
+        assertSame(stored, response);
+        verify(cardRepository, never()).findAllByIdForUpdate(anyCollection());
+        verify(transferRepository, never()).save(any(Transfer.class));
+    }
+
+    @Test
+    void executeTransfer_TooLongIdempotencyKey() {
+        String key = "k".repeat(256);
+
+        assertThrows(InvalidTransferException.class,
+                () -> transferService.executeTransfer(transferRequest, 1L, key));
+    }
+}
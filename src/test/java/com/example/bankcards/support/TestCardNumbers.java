@@ -0,0 +1,40 @@
+package com.example.bankcards.support;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random card numbers that pass the Luhn check, so that tests do not collide on the unique
+ * card number index.
+ */
+public final class TestCardNumbers {
+
+    private TestCardNumbers() {
+    }
+
+    public static String random() {
+        int[] digits = new int[16];
+        digits[0] = 4;
+        for (int i = 1; i < 15; i++) {
+            digits[i] = ThreadLocalRandom.current().nextInt(10);
+        }
+
+        int sum = 0;
+        for (int i = 14; i >= 0; i--) {
+            int n = digits[i];
+            if ((14 - i) % 2 == 0) {
+                n *= 2;
+                if (n > 9) {
+                    n -= 9;
+                }
+            }
+            sum += n;
+        }
+        digits[15] = (10 - sum % 10) % 10;
+
+        StringBuilder number = new StringBuilder();
+        for (int digit : digits) {
+            number.append(digit);
+        }
+        return number.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bankcards.support;
+
+import com.example.bankcards.dto.card.CardCreateRequest;
+import com.example.bankcards.dto.card.CardResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.contracts.CardCommandServiceInterface;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Users and cards for tests running against a real database. Every test creates its own user
+ * and deletes it with everything it owns afterwards, so tests never see each other's rows.
+ * Import it with {@code @Import(TestFixture.class)}.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class TestFixture {
+
+    public static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+
+    private final UserRepository userRepository;
+    private final CardCommandServiceInterface cardCommandService;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Saves a user named {@code prefix} followed by a random suffix.
+     */
+    public User createUser(String prefix) {
+        User user = new User();
+        user.setUsername(prefix + "_" + UUID.randomUUID().toString().substring(0, 8));
+        user.setPassword("password");
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setRole(User.Role.USER);
+        return userRepository.save(user);
+    }
+
+    /**
+     * An active card request with a random number, expiring in three years, holding
+     * {@link #INITIAL_BALANCE}.
+     */
+    public CardCreateRequest cardRequest(User user) {
+        CardCreateRequest request = new CardCreateRequest();
+        request.setCardNumber(TestCardNumbers.random());
+        request.setCardHolder("TEST CARD");
+        request.setExpiryDate(LocalDate.now().plusYears(3));
+        request.setCvv("123");
+        request.setUserId(user.getId());
+        request.setInitialBalance(INITIAL_BALANCE);
+        return request;
+    }
+
+    public CardResponse createCard(User user) {
+        return createCard(user, INITIAL_BALANCE);
+    }
+
+    public CardResponse createCard(User user, BigDecimal initialBalance) {
+        CardCreateRequest request = cardRequest(user);
+        request.setInitialBalance(initialBalance);
+        return cardCommandService.createCard(request);
+    }
+
+    /**
+     * Deletes the user with its cards, their ledgers, transfers and events. Ledger entries and
+     * snapshots do not cascade with their card, so they go first.
+     */
+    public void deleteUser(User user) {
+        String cards = "SELECT id FROM cards WHERE user_id = ?";
+        jdbcTemplate.update("DELETE FROM card_balance_snapshots WHERE card_id IN (" + cards + ")", user.getId());
+        jdbcTemplate.update("DELETE FROM ledger_entries WHERE card_id IN (" + cards + ")", user.getId());
+        jdbcTemplate.update("DELETE FROM transfers WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM card_events WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+}
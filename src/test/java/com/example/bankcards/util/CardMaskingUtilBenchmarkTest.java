@@ -0,0 +1,94 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures ns/op and bytes allocated per op of card number validation and masking against the
+ * previous regex and {@code String.format} implementations, on the current thread. Only runs
+ * with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CardMaskingUtilBenchmarkTest {
+
+    private static final int WARMUP_OPS = 2_000_000;
+    private static final int MEASURED_OPS = 5_000_000;
+
+    private static final String[] NUMBERS = {
+            "4111111111111111", "5500000000000004", "6011000990139424", "4012888888881881"
+    };
+    private static final String[] LAST_FOUR = {"1111", "0004", "9424", "1881"};
+
+    private final CardMaskingUtil maskingUtil = new CardMaskingUtil("**** **** **** %s", 4);
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void isValidCardNumber() {
+        Result previous = measure("isValidCardNumber (regex)", i -> previousIsValid(NUMBERS[i & 3]) ? 1 : 0);
+        Result current = measure("isValidCardNumber", i -> maskingUtil.isValidCardNumber(NUMBERS[i & 3]) ? 1 : 0);
+
+        assertTrue(current.bytesPerOp() < 1, "Luhn validation should not allocate");
+        assertTrue(current.nsPerOp() < previous.nsPerOp());
+    }
+
+    @Test
+    void maskCardNumber() {
+        Result previous = measure("maskCardNumber (String.format)",
+                i -> String.format("**** **** **** %s", LAST_FOUR[i & 3]).length());
+        Result current = measure("maskCardNumber", i -> maskingUtil.maskCardNumber(LAST_FOUR[i & 3]).length());
+
+        assertTrue(current.bytesPerOp() < previous.bytesPerOp());
+        assertTrue(current.nsPerOp() < previous.nsPerOp());
+    }
+
+    private Result measure(String name, ToIntFunction<Integer> op) {
+        run(op, WARMUP_OPS);
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        int sink = run(op, MEASURED_OPS);
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Result result = new Result((double) elapsed / MEASURED_OPS, (double) allocated / MEASURED_OPS);
+        System.out.printf("%-32s %8.1f ns/op %8.1f B/op (%d)%n", name, result.nsPerOp(), result.bytesPerOp(), sink);
+        return result;
+    }
+
+    private static int run(ToIntFunction<Integer> op, int ops) {
+        int sink = 0;
+        for (int i = 0; i < ops; i++) {
+            sink += op.applyAsInt(i & 3);
+        }
+        return sink;
+    }
+
+    private static boolean previousIsValid(String cardNumber) {
+        if (cardNumber == null || !cardNumber.matches("\\d{16}")) {
+            return false;
+        }
+        int sum = 0;
+        boolean alternate = false;
+        for (int i = cardNumber.length() - 1; i >= 0; i--) {
+            int n = Integer.parseInt(cardNumber.substring(i, i + 1));
+            if (alternate) {
+                n *= 2;
+                if (n > 9) {
+                    n = (n % 10) + 1;
+                }
+            }
+            sum += n;
+            alternate = !alternate;
+        }
+        return (sum % 10 == 0);
+    }
+
+    private record Result(double nsPerOp, double bytesPerOp) {
+    }
+}
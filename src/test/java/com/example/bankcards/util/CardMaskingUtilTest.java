@@ -0,0 +1,51 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardMaskingUtilTest {
+
+    private final CardMaskingUtil maskingUtil = new CardMaskingUtil("**** **** **** %s", 4);
+
+    @Test
+    void maskCardNumber_ShowsLastDigits() {
+        assertEquals("**** **** **** 3456", maskingUtil.maskCardNumber("3456"));
+        assertEquals("**** **** **** 1111", maskingUtil.maskCardNumber("4111111111111111"));
+        assertEquals("**** **** **** 4009", maskingUtil.maskCardNumber("6011000990139424009"));
+        assertEquals("****", maskingUtil.maskCardNumber("123"));
+        assertEquals("****", maskingUtil.maskCardNumber(null));
+    }
+
+    @Test
+    void maskCardNumber_FallsBackToFormatForOtherPatterns() {
+        CardMaskingUtil percent = new CardMaskingUtil("%s (100%%)", 2);
+
+        assertEquals("56 (100%)", percent.maskCardNumber("3456"));
+        assertEquals("[3456]", new CardMaskingUtil("[%s]", 4).maskCardNumber("3456"));
+    }
+
+    @Test
+    void formatCardNumber_GroupsByFour() {
+        assertEquals("4111 1111 1111 1111", maskingUtil.formatCardNumber("4111111111111111"));
+        assertEquals("3400 0000 0000 009", maskingUtil.formatCardNumber("340000000000009"));
+        assertEquals("6011 0009 9013 9424 009", maskingUtil.formatCardNumber("6011000990139424009"));
+        assertEquals("1234", maskingUtil.formatCardNumber("1234"));
+    }
+
+    @Test
+    void isValidCardNumber_ChecksLengthDigitsAndLuhn() {
+        assertTrue(maskingUtil.isValidCardNumber("4111111111111111"));
+        assertTrue(maskingUtil.isValidCardNumber("4222222222222"));
+        assertTrue(maskingUtil.isValidCardNumber("340000000000009"));
+        assertTrue(maskingUtil.isValidCardNumber("6011000990139424"));
+        assertTrue(maskingUtil.isValidCardNumber("6011000990139424009"));
+
+        assertFalse(maskingUtil.isValidCardNumber("4111111111111112"));
+        assertFalse(maskingUtil.isValidCardNumber("411111111111"));
+        assertFalse(maskingUtil.isValidCardNumber("41111111111111111111"));
+        assertFalse(maskingUtil.isValidCardNumber("4111 1111 1111 111"));
+        assertFalse(maskingUtil.isValidCardNumber("411111111111111/"));
+        assertFalse(maskingUtil.isValidCardNumber(null));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncryptionUtilTest {
+
+    private static final int OPERATIONS = 200_000;
+    private static final int THREADS = 16;
+
+    private final EncryptionUtil encryptionUtil =
+            new EncryptionUtil("myEncryptionSecretKeyMustBe32BytesLong123456", "AES");
+
+    @Test
+    void encryptDecrypt_RoundTrip() {
+        String encrypted = encryptionUtil.encrypt("4111111111111111");
+
+        assertNotEquals("4111111111111111", encrypted);
+        assertEquals(encrypted, encryptionUtil.encrypt("4111111111111111"));
+        assertEquals("4111111111111111", encryptionUtil.decrypt(encrypted));
+    }
+
+    @Test
+    void encryptAllDecryptAll_KeepOrder() {
+        List<String> numbers = List.of("4111111111111111", "5500000000000004", "340000000000009");
+
+        List<String> encrypted = encryptionUtil.encryptAll(numbers);
+
+        assertEquals(encryptionUtil.encrypt("5500000000000004"), encrypted.get(1));
+        assertEquals(numbers, encryptionUtil.decryptAll(encrypted));
+    }
+
+    @Test
+    void decrypt_InvalidData_DoesNotBreakNextCall() {
+        String encrypted = encryptionUtil.encrypt("4111111111111111");
+
+        assertThrows(RuntimeException.class, () -> encryptionUtil.decrypt("bm90LWVuY3J5cHRlZA=="));
+        assertEquals("4111111111111111", encryptionUtil.decrypt(encrypted));
+    }
+
+    @Test
+    void encryptDecrypt_ConcurrentRoundTrips() throws Exception {
+        String encrypted = encryptionUtil.encrypt("4111111111111111");
+
+        Queue<Throwable> failures = runConcurrently(encrypted, THREADS, 200);
+
+        assertTrue(failures.isEmpty(), () -> "Round trips failed: " + failures.peek());
+    }
+
+    /**
+     * Only runs with {@code -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void encryptDecrypt_Throughput() throws Exception {
+        String encrypted = encryptionUtil.encrypt("4111111111111111");
+        runRoundTrips(encrypted, OPERATIONS / 4);
+
+        long startedAt = System.nanoTime();
+        runRoundTrips(encrypted, OPERATIONS);
+        report("1 thread", OPERATIONS, startedAt);
+
+        startedAt = System.nanoTime();
+        Queue<Throwable> failures = runConcurrently(encrypted, THREADS, OPERATIONS / THREADS);
+        report(THREADS + " threads", OPERATIONS, startedAt);
+
+        assertTrue(failures.isEmpty(), () -> "Round trips failed: " + failures.peek());
+    }
+
+    private Queue<Throwable> runConcurrently(String encrypted, int threads, int perThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    runRoundTrips(encrypted, perThread);
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return failures;
+    }
+
+    private void runRoundTrips(String encrypted, int count) {
+        for (int i = 0; i < count; i++) {
+            String cardNumber = encryptionUtil.decrypt(encrypted);
+            if (!encrypted.equals(encryptionUtil.encrypt(cardNumber))) {
+                throw new IllegalStateException("Round trip mismatch");
+            }
+        }
+    }
+
+    private static void report(String label, int operations, long startedAt) {
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        System.out.printf("EncryptionUtil %s: %d encrypt+decrypt round trips in %.2fs (%.0f/s)%n",
+                label, operations, seconds, operations / seconds);
+    }
+}